@@ -0,0 +1,43 @@
+package com.todo.backend.jmh;
+
+import com.todo.backend.BackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the backend on the in-memory database of the test profile, without a web server unless asked for
+final class BackendContext {
+
+    private BackendContext() {
+    }
+
+    // properties are passed as command line arguments, the only source that outranks the test profile
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    // with the servlet stack on a random port, for benchmarks that go through MockMvc
+    static ConfigurableApplicationContext startWeb(String... properties) {
+        List<String> withPort = new ArrayList<>(List.of(properties));
+        withPort.add("server.port=0");
+        return start(WebApplicationType.SERVLET, withPort.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--task.sql.log-sample-rate=0",
+                "--logging.level.root=warn"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(type)
+                .profiles("test")
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,62 @@
+package com.todo.backend.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// 404s for ids that do not exist, what a client probing random ids gets, through the whole mvc stack
+// including the exception handler and the error body. imports are looked up in memory, so findMissingImport
+// is the error path alone, completeMissingTask adds the database round trip. compare runs before and after a change with
+// -Djmh.include=TaskErrorBenchmark and the json results. the mvc stack takes the jit longer to settle
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskErrorBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private long nextId = 1_000_000_000L;
+
+    @Setup
+    public void setUp() {
+        context = BackendContext.startWeb();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int completeMissingTask() throws Exception {
+        return mockMvc.perform(put("/api/tasks/{id}/complete", nextId++))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int findMissingImport() throws Exception {
+        return mockMvc.perform(get("/api/tasks/import/{importId}", nextId++))
+                .andReturn().getResponse().getStatus();
+    }
+}
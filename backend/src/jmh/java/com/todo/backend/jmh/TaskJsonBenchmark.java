@@ -0,0 +1,83 @@
+package com.todo.backend.jmh;
+
+import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// response bodies written with the ObjectMapper the application configures
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"5", "100"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ListResponse<Task> entityResponse;
+    private ListResponse<TaskView> viewResponse;
+
+    @Setup
+    public void setUp() {
+        context = BackendContext.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            tasks.add(Task.builder()
+                    .id((long) i)
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Description of task " + i)
+                    .completed(false)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+
+        entityResponse = new ListResponse<>();
+        entityResponse.setMessage("No of tasks found : " + size);
+        entityResponse.setEntityList(tasks);
+
+        viewResponse = new ListResponse<>();
+        viewResponse.setMessage("No of tasks found : " + size);
+        viewResponse.setEntityList(tasks.stream().map(TaskView::from).toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() {
+        return objectMapper.writeValueAsBytes(entityResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskViews() {
+        return objectMapper.writeValueAsBytes(viewResponse);
+    }
+}
@@ -0,0 +1,92 @@
+package com.todo.backend.jmh;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.CompleteResponse;
+import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// createTask, findRecentTasks and completeTask through the service proxy, transactions included
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int COMPLETABLE_TASKS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean recentCache;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private AddTaskDto addTaskDto;
+    private long[] completableIds;
+    private int nextCompletable;
+
+    @Setup
+    public void setUp() {
+        context = BackendContext.start("task.recent-cache.enabled=" + recentCache);
+        taskService = context.getBean(TaskService.class);
+
+        addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle("Benchmark Task");
+        addTaskDto.setDescription("Benchmark Description");
+
+        // completeTask walks through these, later rounds complete tasks that are already done
+        completableIds = new long[COMPLETABLE_TASKS];
+        for (int from = 0; from < COMPLETABLE_TASKS; from += 1_000) {
+            List<AddTaskDto> batch = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                batch.add(addTaskDto);
+            }
+            ListResponse<TaskSummary> created = taskService.createTasks(batch);
+            for (int i = 0; i < created.getEntityList().size(); i++) {
+                completableIds[from + i] = created.getEntityList().get(i).getId();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.createTask(addTaskDto);
+    }
+
+    @Benchmark
+    public ListResponse<TaskView> findRecentTasks() {
+        return taskService.findRecentTasks();
+    }
+
+    @Benchmark
+    public CompleteResponse completeTask() {
+        long id = completableIds[nextCompletable];
+        nextCompletable = (nextCompletable + 1) % COMPLETABLE_TASKS;
+        return taskService.completeTask(id);
+    }
+}
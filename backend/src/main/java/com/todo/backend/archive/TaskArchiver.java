@@ -0,0 +1,70 @@
+package com.todo.backend.archive;
+
+import com.todo.backend.service.TaskArchiveService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// runs an archive pass every task.archive.interval on one background thread, off unless enabled.
+// passes of several instances can overlap, each batch claims its rows with SKIP LOCKED, so a row is
+// copied by one pass only and the others move on to the rows nobody holds
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final TaskArchiveService taskArchiveService;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private Thread archiverThread;
+
+    public TaskArchiver(TaskArchiveService taskArchiveService,
+                        @Value("${task.archive.enabled:false}") boolean enabled,
+                        @Value("${task.archive.interval:1h}") Duration interval) {
+        this.taskArchiveService = taskArchiveService;
+        this.enabled = enabled;
+        this.intervalMillis = interval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (enabled && archiverThread == null) {
+            archiverThread = Thread.ofPlatform().name("task-archiver").daemon(true).start(this::run);
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (archiverThread != null) {
+            archiverThread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                int archived = taskArchiveService.archiveCompletedTasks();
+                if (archived > 0) {
+                    log.info("archived {} completed tasks", archived);
+                }
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException exc) {
+                return;
+            } catch (RuntimeException exc) {
+                // the next pass picks up where this one failed
+                log.warn("task archive pass failed: {}", exc.toString());
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.todo.backend.cache;
+
+import com.todo.backend.exception.InvalidTaskRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// remembers the response to a request sent with an Idempotency-Key header, so a client retrying
+// after a timeout gets the first response back instead of doing the work again.
+// keys are only known to this instance, a retry that reaches another instance runs again
+@Component
+public class IdempotencyCache {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final long ttlNanos;
+    private final int capacity;
+
+    // insertion order is also expiry order, guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyCache(@Value("${task.idempotency.ttl:10m}") Duration ttl,
+                            @Value("${task.idempotency.capacity:10000}") int capacity) {
+        this.ttlNanos = ttl.toNanos();
+        this.capacity = capacity;
+    }
+
+    // runs the action once per key, request describes the call so a key reused for another call is refused.
+    // a retry arriving while the first call is still running waits for its response
+    public <T> ResponseEntity<T> execute(String key, Object request, Supplier<ResponseEntity<T>> action) {
+
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTaskRequestException(KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        while (true) {
+            Entry entry = new Entry(request, new CompletableFuture<>(), System.nanoTime());
+            Entry existing = claim(key, entry);
+
+            if (existing == null) {
+                return run(key, entry, action);
+            }
+            if (!existing.request().equals(request)) {
+                throw new InvalidTaskRequestException(KEY_HEADER + " " + key + " was used for a different request");
+            }
+
+            try {
+                return replay(existing.response().join());
+            } catch (CompletionException | CancellationException exc) {
+                // the first call failed and was forgotten, this one runs it again
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String key, Entry entry, Supplier<ResponseEntity<T>> action) {
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException exc) {
+            // failures are not remembered, the client may retry with the same key
+            remove(key, entry);
+            entry.response().completeExceptionally(exc);
+            throw exc;
+        }
+    }
+
+    // the existing entry for the key, or null after the given one was stored
+    private synchronized Entry claim(String key, Entry entry) {
+        evictExpired(entry.createdAt());
+
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        entries.put(key, entry);
+        if (entries.size() > capacity) {
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+
+    private synchronized void remove(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().createdAt() >= ttlNanos) {
+            iterator.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replay(ResponseEntity<?> response) {
+        return (ResponseEntity<T>) ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<?>> response, long createdAt) {
+    }
+}
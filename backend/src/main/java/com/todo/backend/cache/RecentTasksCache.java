@@ -0,0 +1,159 @@
+package com.todo.backend.cache;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+// holds the rows returned by TaskRepository.findRecentTasks and keeps them current on local writes.
+// writes from other instances are only picked up once the ttl expires. rows have to be read from the
+// primary, a lagging replica could miss a write that was applied here already
+@Component
+public class RecentTasksCache {
+
+    // same limit as the findRecentTasks query
+    static final int CAPACITY = 5;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // replaced on every change, readers never lock
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // bumped by every write, a load started before a write is not installed
+    private long generation;
+
+    public RecentTasksCache(@Value("${task.recent-cache.enabled:true}") boolean enabled,
+                            @Value("${task.recent-cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<List<TaskView>> get() {
+        Snapshot current = snapshot;
+
+        if (enabled && current.loaded() && System.nanoTime() - current.loadedAt() < ttlNanos) {
+            hits.increment();
+            return Optional.of(current.tasks());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // install rows read from the database, unless a write happened while they were read
+    public synchronized void load(long readGeneration, List<TaskView> tasks) {
+        if (!enabled || readGeneration != generation) {
+            return;
+        }
+
+        // fewer rows than the query limit means there are no other open tasks
+        snapshot = new Snapshot(List.copyOf(tasks), tasks.size() < CAPACITY, System.nanoTime(), true);
+    }
+
+    public void taskCreated(TaskView task) {
+        tasksCreated(List.of(task));
+    }
+
+    public void tasksCreated(List<TaskView> tasks) {
+        afterCommit(() -> applyCreated(tasks));
+    }
+
+    public void tasksCompleted(Collection<Long> ids) {
+        afterCommit(() -> applyCompleted(ids));
+    }
+
+    public void invalidate() {
+        afterCommit(this::applyInvalidate);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private synchronized void applyCreated(List<TaskView> created) {
+        generation++;
+
+        Snapshot current = snapshot;
+        if (!current.loaded()) {
+            return;
+        }
+
+        List<TaskView> tasks = new ArrayList<>(current.tasks());
+        for (TaskView task : created) {
+            tasks.removeIf(existing -> existing.getId().equals(task.getId()));
+            tasks.add(task);
+        }
+        tasks.sort(Comparator.comparing(TaskView::getId).reversed());
+
+        boolean exhaustive = current.exhaustive() && tasks.size() <= CAPACITY;
+        List<TaskView> top = tasks.size() > CAPACITY ? tasks.subList(0, CAPACITY) : tasks;
+
+        snapshot = new Snapshot(List.copyOf(top), exhaustive, current.loadedAt(), true);
+    }
+
+    private synchronized void applyCompleted(Collection<Long> ids) {
+        generation++;
+
+        Snapshot current = snapshot;
+        if (!current.loaded()) {
+            return;
+        }
+
+        List<TaskView> tasks = current.tasks().stream()
+                .filter(task -> !ids.contains(task.getId()))
+                .toList();
+
+        if (tasks.size() == current.tasks().size()) {
+            return;
+        }
+
+        // older open tasks may have to move up, only the database knows them
+        if (!current.exhaustive()) {
+            snapshot = Snapshot.EMPTY;
+            return;
+        }
+
+        snapshot = new Snapshot(tasks, true, current.loadedAt(), true);
+    }
+
+    private synchronized void applyInvalidate() {
+        generation++;
+        snapshot = Snapshot.EMPTY;
+    }
+
+    // changes made inside a transaction only reach the cache once it has committed
+    private void afterCommit(Runnable change) {
+        if (enabled) {
+            AfterCommit.run(change);
+        }
+    }
+
+    private record Snapshot(List<TaskView> tasks, boolean exhaustive, long loadedAt, boolean loaded) {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), false, 0, false);
+    }
+}
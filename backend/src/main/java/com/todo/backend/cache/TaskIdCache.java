@@ -0,0 +1,44 @@
+package com.todo.backend.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// task id to primary key, least recently used entries are dropped beyond the capacity.
+// a task id is never given to another task, so entries need no expiry. a mapping to a row that is
+// gone is evicted by the caller that finds out
+@Component
+public class TaskIdCache {
+
+    private final int capacity;
+
+    // access order, guarded by this
+    private final LinkedHashMap<String, Long> ids;
+
+    public TaskIdCache(@Value("${task.id-cache.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > TaskIdCache.this.capacity;
+            }
+        };
+    }
+
+    // null when the task id is not cached
+    public synchronized Long get(String taskId) {
+        return ids.get(taskId);
+    }
+
+    public synchronized void put(String taskId, long id) {
+        if (capacity > 0) {
+            ids.put(taskId, id);
+        }
+    }
+
+    public synchronized void evict(String taskId) {
+        ids.remove(taskId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.todo.backend.cache;
+
+import com.todo.backend.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// change counter behind the etags of task reads, bumped once a create, completion, import or archive
+// pass has committed. a read takes its etag before it reads, so a response is never labelled newer
+// than its data. the etag also rolls over every ttl, which bounds how long writes made by other instances
+// can be answered with 304. changedAtMillis lets a read from a replica tell whether the replica has the last change
+@Component
+public class TaskVersion {
+
+    // versions restart at 0, the instance part keeps etags from before a restart from matching
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final long ttlNanos;
+    private final long origin = System.nanoTime();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long changedAtMillis;
+
+    public TaskVersion(@Value("${task.etag.ttl:30s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public void changed() {
+        AfterCommit.run(() -> {
+            // before the version, a reader that sees the new version also sees the new time
+            changedAtMillis = System.currentTimeMillis();
+            version.incrementAndGet();
+        });
+    }
+
+    // wall clock time of the last committed change, 0 before the first
+    public long getChangedAtMillis() {
+        return changedAtMillis;
+    }
+
+    // weak, equal responses are equivalent but not byte for byte the same (e.g. the message text)
+    public String etag() {
+        long period = (System.nanoTime() - origin) / ttlNanos;
+        return "W/\"" + instance + "-" + version.get() + "-" + period + "\"";
+    }
+}
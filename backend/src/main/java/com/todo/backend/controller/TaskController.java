@@ -1,14 +1,45 @@
 package com.todo.backend.controller;
 
+import com.todo.backend.cache.IdempotencyCache;
+import com.todo.backend.cache.TaskVersion;
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.ArchivedTask;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
 import com.todo.backend.dto.CompleteResponse;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.PageResponse;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskImportResponse;
+import com.todo.backend.dto.TaskIndexResponse;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.dto.TaskSearchRequest;
+import com.todo.backend.dto.TaskSearchResponse;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import com.todo.backend.jdbc.ReplicaRouting;
+import com.todo.backend.service.TaskArchiveService;
+import com.todo.backend.service.TaskImportService;
+import com.todo.backend.service.TaskSearchService;
 import com.todo.backend.service.TaskService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -16,31 +47,171 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskSearchService taskSearchService;
+    private final TaskArchiveService taskArchiveService;
+    private final IdempotencyCache idempotencyCache;
+    private final TaskVersion taskVersion;
 
     // constructor injection
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService,
+                          TaskSearchService taskSearchService, TaskArchiveService taskArchiveService,
+                          IdempotencyCache idempotencyCache, TaskVersion taskVersion) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
+        this.taskSearchService = taskSearchService;
+        this.taskArchiveService = taskArchiveService;
+        this.idempotencyCache = idempotencyCache;
+        this.taskVersion = taskVersion;
     }
 
-    // create a new task
+    // create a new task, a retry with the same idempotency key returns the task created first
     @PostMapping
-    public ResponseEntity<Task> createTask(@Valid @RequestBody AddTaskDto addTaskDto) {
-        Task createdTask = taskService.createTask(addTaskDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+    public ResponseEntity<Task> createTask(@Valid @RequestBody AddTaskDto addTaskDto,
+                                           @RequestHeader(value = IdempotencyCache.KEY_HEADER, required = false) String idempotencyKey) {
+        List<Object> request = Arrays.asList("create", addTaskDto.getTitle(), addTaskDto.getDescription());
+        return idempotencyCache.execute(idempotencyKey, request, () -> {
+            Task createdTask = taskService.createTask(addTaskDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        });
     }
 
+    // create several tasks at once, items are validated in the service so every error is reported
+    @PostMapping("/batch")
+    public ResponseEntity<ListResponse<TaskSummary>> createTasks(@RequestBody List<AddTaskDto> addTaskDtos) {
+        ListResponse<TaskSummary> response = taskService.createTasks(addTaskDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
 
-    // find recent tasks
+    // find recent tasks, 304 while nothing changed since the client's copy
     @GetMapping("/recent")
-    public ResponseEntity<ListResponse<Task>> findRecentTasks() {
-        ListResponse<Task> response = taskService.findRecentTasks();
+    public ResponseEntity<ListResponse<TaskView>> findRecentTasks(WebRequest request) {
+        return conditional(request, taskService::findRecentTasks);
+    }
+
+    // page through tasks, newest first
+    @GetMapping
+    public ResponseEntity<PageResponse<TaskSummary>> findTasks(@ModelAttribute TaskPageRequest pageRequest, WebRequest request) {
+        return conditional(request, () -> taskService.findTasks(pageRequest));
+    }
+
+    // ranked full-text search over titles and descriptions
+    @GetMapping("/search")
+    public ResponseEntity<TaskSearchResponse> searchTasks(@ModelAttribute TaskSearchRequest searchRequest) throws IOException {
+        TaskSearchResponse response = taskSearchService.searchTasks(searchRequest);
         return ResponseEntity.ok(response);
     }
 
-    // complete task
-    @PutMapping("/{id}/complete")
-    public ResponseEntity<CompleteResponse> completeTask(@PathVariable Long id) {
-        CompleteResponse response = taskService.completeTask(id);
+    // rebuild the search index from the task table, e.g. after rows were written around the service
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<TaskIndexResponse> rebuildSearchIndex() throws IOException {
+        TaskIndexResponse response = taskSearchService.rebuildIndex();
+        return ResponseEntity.ok(response);
+    }
+
+    // one task by its business id, e.g. TSK 123
+    @GetMapping("/by-task-id/{taskId}")
+    public ResponseEntity<TaskView> findTaskByTaskId(@PathVariable String taskId, WebRequest request) {
+        return conditional(request, () -> taskService.findTaskByTaskId(taskId));
+    }
+
+    // an archived task by its task id
+    @GetMapping("/archive")
+    public ResponseEntity<ArchivedTask> findArchivedTaskByTaskId(@RequestParam String taskId, WebRequest request) {
+        return conditional(request, () -> taskArchiveService.findArchivedTaskByTaskId(taskId));
+    }
+
+    // an archived task by its id
+    @GetMapping("/archive/{id}")
+    public ResponseEntity<ArchivedTask> findArchivedTask(@PathVariable Long id, WebRequest request) {
+        return conditional(request, () -> taskArchiveService.findArchivedTask(id));
+    }
+
+    // export every task as ndjson or csv, rows are written as they are read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        TaskFileFormat exportFormat = TaskFileFormat.from(format);
+        StreamingResponseBody body = outputStream -> taskService.exportTasks(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    // import an ndjson or csv file sent as the request body, runs in the background
+    @PostMapping("/import")
+    public ResponseEntity<TaskImportResponse> importTasks(@RequestParam(defaultValue = "ndjson") String format,
+                                                          InputStream inputStream) throws IOException {
+        TaskImportResponse response = taskImportService.startImport(TaskFileFormat.from(format), inputStream);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tasks/import/" + response.getImportId()))
+                .body(response);
+    }
+
+    // progress and rejected records of an import
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<TaskImportResponse> findImport(@PathVariable String importId) {
+        TaskImportResponse response = taskImportService.findImport(importId);
         return ResponseEntity.ok(response);
     }
+
+    // complete many tasks, by ids or by creation date
+    @PutMapping("/complete")
+    public ResponseEntity<BulkCompleteResponse> completeTasks(@RequestBody BulkCompleteDto bulkCompleteDto) {
+        BulkCompleteResponse response = taskService.completeTasks(bulkCompleteDto);
+        return ResponseEntity.ok(response);
+    }
+
+    // complete task, completing it again is not an error and the response tells which call completed it
+    @PutMapping("/{id}/complete")
+    public ResponseEntity<CompleteResponse> completeTask(@PathVariable Long id,
+                                                         @RequestHeader(value = IdempotencyCache.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, List.of("complete", id), () -> {
+            CompleteResponse response = taskService.completeTask(id);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // complete a task by its business id, same responses as completing it by id
+    @PutMapping("/by-task-id/{taskId}/complete")
+    public ResponseEntity<CompleteResponse> completeTaskByTaskId(@PathVariable String taskId,
+                                                                 @RequestHeader(value = IdempotencyCache.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyCache.execute(idempotencyKey, List.of("complete-by-task-id", taskId), () -> {
+            CompleteResponse response = taskService.completeTaskByTaskId(taskId);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    // reads of task data carry a weak etag from TaskVersion, a matching If-None-Match is answered with 304
+    // before the database is touched or json written. the etag is taken before the read, see TaskVersion.
+    // a read served by a replica that was last seen in sync before the latest change gets no etag, so a client
+    // never holds an etag for rows older than the version it names
+    private <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> read) {
+        String etag = taskVersion.etag();
+        if (matches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).eTag(etag).build();
+        }
+        T body = read.get();
+        if (ReplicaRouting.getReplicaSyncedToMillis() <= taskVersion.getChangedAtMillis()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
+    }
+
+    // weak comparison as for GET, not WebRequest.checkNotModified, that one also sets the etag header
+    private static boolean matches(WebRequest request, String etag) {
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        for (String header : ifNoneMatch) {
+            for (ETag tag : ETag.parse(header)) {
+                if (tag.isWildcard() || tag.compare(current, false)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
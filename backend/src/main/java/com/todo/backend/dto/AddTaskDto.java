@@ -1,6 +1,8 @@
 package com.todo.backend.dto;
 
+import com.todo.backend.entity.Task;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,8 +11,10 @@ import lombok.Setter;
 public class AddTaskDto {
 
     @NotBlank(message = "Title cannot be empty")
+    @Size(max = Task.TEXT_LENGTH, message = "Title cannot be longer than " + Task.TEXT_LENGTH + " characters")
     private String title;
 
     @NotBlank(message = "Description cannot be empty")
+    @Size(max = Task.TEXT_LENGTH, message = "Description cannot be longer than " + Task.TEXT_LENGTH + " characters")
     private String description;
 }
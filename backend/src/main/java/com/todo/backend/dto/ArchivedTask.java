@@ -0,0 +1,23 @@
+package com.todo.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// a completed task read from task_archive
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+
+    private Long id;
+    private String taskId;
+    private String title;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime archivedAt;
+}
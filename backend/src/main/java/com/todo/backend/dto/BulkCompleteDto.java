@@ -0,0 +1,17 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// either a list of ids or a cut-off date, not both
+@Setter
+@Getter
+public class BulkCompleteDto {
+
+    private List<Long> ids;
+
+    private LocalDateTime createdBefore;
+}
@@ -0,0 +1,18 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+public class BulkCompleteResponse {
+
+    private String message;
+
+    private Integer updatedCount;
+
+    private List<Long> missingIds = new ArrayList<>();
+}
@@ -1,6 +1,5 @@
 package com.todo.backend.dto;
 
-import com.todo.backend.entity.Task;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -10,5 +9,8 @@ public class CompleteResponse {
 
     private String message;
 
-    private Task task;
+    private Long id;
+
+    // false when an earlier request had completed the task already
+    private boolean completedNow;
 }
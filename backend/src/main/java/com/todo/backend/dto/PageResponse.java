@@ -0,0 +1,12 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class PageResponse<T> extends ListResponse<T> {
+
+    // pass back as cursor to get the next page, null on the last page
+    private String nextCursor;
+}
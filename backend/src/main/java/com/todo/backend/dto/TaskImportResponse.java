@@ -0,0 +1,25 @@
+package com.todo.backend.dto;
+
+import com.todo.backend.exception.error.BatchItemError;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// progress of an import, counts grow while it runs
+@Setter
+@Getter
+public class TaskImportResponse {
+
+    private String importId;
+    private String status;
+    private String message;
+    private Long processedCount;
+    private Long importedCount;
+    private Long failedCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // first rejected records, failedCount has the full number
+    private List<BatchItemError> errors;
+}
@@ -0,0 +1,12 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class TaskIndexResponse {
+
+    private String message;
+    private long indexedCount;
+}
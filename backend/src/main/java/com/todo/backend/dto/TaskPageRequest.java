@@ -0,0 +1,25 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// query parameters of GET /api/tasks, every filter is optional
+@Setter
+@Getter
+public class TaskPageRequest {
+
+    private String cursor;
+
+    private Integer size;
+
+    private Boolean completed;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
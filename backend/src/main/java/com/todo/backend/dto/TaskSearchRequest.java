@@ -0,0 +1,19 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// query parameters of GET /api/tasks/search, q is required
+@Setter
+@Getter
+public class TaskSearchRequest {
+
+    private String q;
+
+    private Boolean completed;
+
+    // zero based
+    private Integer page;
+
+    private Integer size;
+}
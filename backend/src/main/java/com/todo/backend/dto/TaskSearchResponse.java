@@ -0,0 +1,12 @@
+package com.todo.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class TaskSearchResponse extends ListResponse<TaskView> {
+
+    // pass back as page to get the next results, null on the last page
+    private Integer nextPage;
+}
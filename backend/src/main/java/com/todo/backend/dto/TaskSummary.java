@@ -0,0 +1,32 @@
+package com.todo.backend.dto;
+
+import com.todo.backend.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// list row without the description, which can be large
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummary {
+
+    private Long id;
+    private String taskId;
+    private String title;
+    private Boolean completed;
+    private LocalDateTime createdAt;
+
+    public static TaskSummary from(Task task) {
+        return new TaskSummary(
+                task.getId(),
+                task.getTaskId(),
+                task.getTitle(),
+                task.getCompleted(),
+                task.getCreatedAt());
+    }
+}
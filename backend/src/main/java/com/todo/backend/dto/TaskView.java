@@ -0,0 +1,34 @@
+package com.todo.backend.dto;
+
+import com.todo.backend.entity.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// read model of a single task, filled by query projections instead of managed entities
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskView {
+
+    private Long id;
+    private String taskId;
+    private String title;
+    private String description;
+    private LocalDateTime createdAt;
+    private Boolean completed;
+
+    public static TaskView from(Task task) {
+        return new TaskView(
+                task.getId(),
+                task.getTaskId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getCreatedAt(),
+                task.getCompleted());
+    }
+}
@@ -1,7 +1,10 @@
 package com.todo.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.todo.backend.util.TaskPrimaryKey;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -12,18 +15,22 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(toBuilder = true)
-public class Task {
+public class Task implements Persistable<Long> {
+
+    // size of the varchar columns
+    public static final int TEXT_LENGTH = 255;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TaskPrimaryKey
     private Long id;
 
     @Column(name = "task_id", nullable = false)
     private String taskId;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = TEXT_LENGTH)
     private String title;
 
+    @Column(length = TEXT_LENGTH)
     private String description;
 
     @Column(name = "created_at", nullable = false)
@@ -31,4 +38,27 @@ public class Task {
 
     @Column(nullable = false)
     private Boolean completed;
+
+    // starts at 0 on insert, the completion updates raise it as well
+    @Version
+    private Long version;
+
+    // ids are assigned before saving, this tells Spring Data to persist instead of merge
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted = false;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -0,0 +1,22 @@
+package com.todo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "task_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSequence {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // first value of the next block that has not been handed out yet
+    @Column(name = "next_val", nullable = false)
+    private Long nextVal;
+}
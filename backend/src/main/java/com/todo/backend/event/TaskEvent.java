@@ -0,0 +1,31 @@
+package com.todo.backend.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.todo.backend.dto.TaskView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// one change pushed to /api/tasks/stream, the id is sent as the sse event id and orders the events
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskEvent {
+
+    @JsonIgnore
+    private final long id;
+
+    private final TaskEventType type;
+
+    // created tasks
+    private final List<TaskView> tasks;
+
+    // completed task ids
+    private final List<Long> ids;
+
+    static TaskEvent reload(long id) {
+        return new TaskEvent(id, TaskEventType.RELOAD, null, null);
+    }
+}
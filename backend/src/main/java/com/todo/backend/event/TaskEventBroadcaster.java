@@ -0,0 +1,246 @@
+package com.todo.backend.event;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// pushes committed task changes to every /api/tasks/stream subscriber.
+// an idle subscriber holds no thread, events are written by a short lived virtual thread per subscriber,
+// so a client that stops reading only parks its own sender. event ids and the replay history are
+// per instance, a client resuming on another instance is told to reload
+@Component
+public class TaskEventBroadcaster {
+
+    private final long timeoutMillis;
+    private final int historySize;
+    private final int subscriberBuffer;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // recent events for clients resuming with Last-Event-ID, guarded by this
+    private final ArrayDeque<TaskEvent> history = new ArrayDeque<>();
+    private long lastEventId;
+
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("task-stream-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("task-stream-heartbeat").daemon(true).factory());
+
+    private final Counter coalescedEvents;
+
+    public TaskEventBroadcaster(MeterRegistry meterRegistry,
+                                @Value("${task.stream.timeout:30m}") Duration timeout,
+                                @Value("${task.stream.heartbeat:25s}") Duration heartbeat,
+                                @Value("${task.stream.history-size:1000}") int historySize,
+                                @Value("${task.stream.subscriber-buffer:100}") int subscriberBuffer) {
+        this.timeoutMillis = timeout.toMillis();
+        this.historySize = historySize;
+        this.subscriberBuffer = subscriberBuffer;
+
+        Gauge.builder("task.stream.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+        this.coalescedEvents = Counter.builder("task.stream.coalesced")
+                .description("Pending events replaced by a reload because the subscriber fell behind")
+                .register(meterRegistry);
+
+        // comments keep proxies from closing idle streams and find clients that are gone
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void tasksCreated(List<TaskView> tasks) {
+        AfterCommit.run(() -> publish(TaskEventType.CREATED, List.copyOf(tasks), null));
+    }
+
+    public void tasksCompleted(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            AfterCommit.run(() -> publish(TaskEventType.COMPLETED, null, List.copyOf(ids)));
+        }
+    }
+
+    public void tasksChanged() {
+        AfterCommit.run(() -> publish(TaskEventType.RELOAD, null, null));
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    // the events missed since lastEventId are queued before any new one can reach the subscriber
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        // the client reconnects with its last event id once the stream times out
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(exc -> subscribers.remove(subscriber));
+
+        synchronized (this) {
+            missedEvents(lastEventId).forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+
+        return emitter;
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private synchronized void publish(TaskEventType type, List<TaskView> tasks, List<Long> ids) {
+        TaskEvent event = new TaskEvent(++lastEventId, type, tasks, ids);
+
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // nothing for a new client, a reload when the id is unknown or older than the history
+    private List<TaskEvent> missedEvents(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        long seenId;
+        try {
+            seenId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException exc) {
+            return List.of(TaskEvent.reload(this.lastEventId));
+        }
+
+        long oldestKept = history.isEmpty() ? this.lastEventId + 1 : history.getFirst().getId();
+        if (seenId > this.lastEventId || seenId < oldestKept - 1) {
+            return List.of(TaskEvent.reload(this.lastEventId));
+        }
+
+        List<TaskEvent> missed = new ArrayList<>();
+        for (TaskEvent event : history) {
+            if (event.getId() > seenId) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // guarded by this
+        private final ArrayDeque<TaskEvent> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean heartbeatDue;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(TaskEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+
+                if (pending.size() < subscriberBuffer) {
+                    pending.addLast(event);
+                } else {
+                    // the client fell behind, one reload stands in for everything it has not received
+                    coalescedEvents.increment(pending.size());
+                    pending.clear();
+                    pending.addLast(TaskEvent.reload(event.getId()));
+                }
+
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || sending) {
+                    return;
+                }
+                heartbeatDue = true;
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                TaskEvent event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null && !heartbeatDue) {
+                        sending = false;
+                        return;
+                    }
+                    heartbeatDue = false;
+                }
+
+                try {
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getId()))
+                                .name(event.getType().name().toLowerCase(Locale.ROOT))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException exc) {
+                    // the client is gone or the stream was completed, the container cleans up the request
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.todo.backend.event;
+
+public enum TaskEventType {
+
+    CREATED,
+
+    COMPLETED,
+
+    // changes too broad to list, like imports or completion by date, clients reload what they show
+    RELOAD
+}
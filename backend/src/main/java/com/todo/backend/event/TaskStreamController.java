@@ -0,0 +1,31 @@
+package com.todo.backend.event;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "*")
+public class TaskStreamController {
+
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
+    // constructor injection
+    public TaskStreamController(TaskEventBroadcaster taskEventBroadcaster) {
+        this.taskEventBroadcaster = taskEventBroadcaster;
+    }
+
+    // stream of created, completed and reload events. a reconnecting EventSource resumes with the
+    // Last-Event-ID header, the lastEventId parameter does the same for a first connect
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                  @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return taskEventBroadcaster.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
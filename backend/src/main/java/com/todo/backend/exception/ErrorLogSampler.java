@@ -0,0 +1,51 @@
+package com.todo.backend.exception;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// lets up to limit log lines per exception type through in each interval and counts the rest,
+// so a flood of one error leaves a few lines and a count instead of filling the log
+class ErrorLogSampler {
+
+    static final long SUPPRESSED = -1;
+
+    private final int limit;
+    private final long intervalNanos;
+    private final ConcurrentHashMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    ErrorLogSampler(int limit, long intervalNanos) {
+        this.limit = limit;
+        this.intervalNanos = intervalNanos;
+    }
+
+    // SUPPRESSED if the line is dropped, otherwise how many were dropped since the last one let through
+    long sample(Class<?> type) {
+        return sample(type, System.nanoTime());
+    }
+
+    long sample(Class<?> type, long now) {
+        Window window = windows.computeIfAbsent(type, key -> new Window(now));
+
+        long start = window.start.get();
+        if (now - start >= intervalNanos && window.start.compareAndSet(start, now)) {
+            window.logged.set(0);
+        }
+        if (window.logged.incrementAndGet() > limit) {
+            window.suppressed.incrementAndGet();
+            return SUPPRESSED;
+        }
+        return window.suppressed.getAndSet(0);
+    }
+
+    private static class Window {
+
+        private final AtomicLong start;
+        private final AtomicInteger logged = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(long start) {
+            this.start = new AtomicLong(start);
+        }
+    }
+}
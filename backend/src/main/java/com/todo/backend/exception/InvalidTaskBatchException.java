@@ -0,0 +1,19 @@
+package com.todo.backend.exception;
+
+import com.todo.backend.exception.error.BatchItemError;
+
+import java.util.List;
+
+public class InvalidTaskBatchException extends TaskDomainException {
+
+    private final List<BatchItemError> errors;
+
+    public InvalidTaskBatchException(String message, List<BatchItemError> errors) {
+        super(message);
+        this.errors = errors;
+    }
+
+    public List<BatchItemError> getErrors() {
+        return errors;
+    }
+}
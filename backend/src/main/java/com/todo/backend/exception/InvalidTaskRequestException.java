@@ -0,0 +1,8 @@
+package com.todo.backend.exception;
+
+public class InvalidTaskRequestException extends TaskDomainException {
+
+    public InvalidTaskRequestException(String message) {
+        super(message);
+    }
+}
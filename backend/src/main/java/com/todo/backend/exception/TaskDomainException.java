@@ -0,0 +1,11 @@
+package com.todo.backend.exception;
+
+// base of the exceptions for expected outcomes (missing tasks, bad input, throttling). they skip the
+// stack trace: filling it in walks the whole servlet stack and costs more than the rest of a 404,
+// and TaskExceptionHandler answers them from the message alone
+public abstract class TaskDomainException extends RuntimeException {
+
+    protected TaskDomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,42 +1,105 @@
 package com.todo.backend.exception;
 
+import com.todo.backend.exception.error.BatchErrorResponse;
 import com.todo.backend.exception.error.TaskErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+// errors are answered as rfc 7807 problem details. domain exceptions carry no stack trace and the
+// parts every response shares (headers, titles, counters) are built once, so a flood of 404s from
+// clients probing ids costs little more than a found task. logging is sampled per exception type
 @RestControllerAdvice
 public class TaskExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskExceptionHandler.class);
+
+    // no problem types of our own, the status says it all (rfc 7807 section 4.2)
+    private static final String PROBLEM_TYPE = "about:blank";
+    private static final String UNEXPECTED_ERROR = "Unexpected error";
+    private static final HttpHeaders PROBLEM_HEADERS = HttpHeaders.readOnlyHttpHeaders(problemHeaders());
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorLogSampler logSampler;
+    private final ConcurrentHashMap<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    public TaskExceptionHandler(MeterRegistry meterRegistry,
+                                @Value("${task.error-log.limit:10}") int logLimit,
+                                @Value("${task.error-log.interval:1m}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.logSampler = new ErrorLogSampler(logLimit, logInterval.toNanos());
+    }
+
     // handle not found exceptions
-    @ExceptionHandler(TaskNotFoundException.class)
-    public ResponseEntity<TaskErrorResponse> handleTaskNotFound(TaskNotFoundException exc) {
+    @ExceptionHandler({TaskNotFoundException.class, TaskImportNotFoundException.class})
+    public ResponseEntity<TaskErrorResponse> handleTaskNotFound(RuntimeException exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.NOT_FOUND, exc.getMessage(), request, PROBLEM_HEADERS);
+    }
 
-        TaskErrorResponse error = new TaskErrorResponse();
-        error.setStatus(HttpStatus.NOT_FOUND.value());
-        error.setMessage(exc.getMessage());
-        error.setTimeStamp(System.currentTimeMillis());
+    // handle malformed request parameters
+    @ExceptionHandler(InvalidTaskRequestException.class)
+    public ResponseEntity<TaskErrorResponse> handleInvalidRequest(InvalidTaskRequestException exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.BAD_REQUEST, exc.getMessage(), request, PROBLEM_HEADERS);
+    }
 
-        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    // an import upload over task.import.max-bytes
+    @ExceptionHandler(TaskImportTooLargeException.class)
+    public ResponseEntity<TaskErrorResponse> handleImportTooLarge(TaskImportTooLargeException exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.CONTENT_TOO_LARGE, exc.getMessage(), request, PROBLEM_HEADERS);
     }
 
-    // generic handler for any unhandled exception
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<TaskErrorResponse> handleGenericException(Exception exc) {
+    // handle batches with invalid items, every failing item is reported
+    @ExceptionHandler(InvalidTaskBatchException.class)
+    public ResponseEntity<BatchErrorResponse> handleInvalidBatch(InvalidTaskBatchException exc, HttpServletRequest request) {
 
-        TaskErrorResponse error = new TaskErrorResponse();
-        error.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
-        error.setMessage("Unexpected error: " + exc.getMessage());
-        error.setTimeStamp(System.currentTimeMillis());
+        BatchErrorResponse error = new BatchErrorResponse();
+        error.setErrors(exc.getErrors());
+
+        return respond(error, exc, HttpStatus.BAD_REQUEST, exc.getMessage(), request, PROBLEM_HEADERS);
+    }
+
+    // a client over its rate limit for the endpoint
+    @ExceptionHandler(TaskRateLimitException.class)
+    public ResponseEntity<TaskErrorResponse> handleRateLimit(TaskRateLimitException exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.TOO_MANY_REQUESTS, exc.getMessage(), request,
+                retryAfter(exc.getRetryAfterSeconds()));
+    }
 
-        return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+    // requests shed by the concurrency limit while database latency is up
+    @ExceptionHandler(TaskOverloadedException.class)
+    public ResponseEntity<TaskErrorResponse> handleOverloaded(TaskOverloadedException exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.SERVICE_UNAVAILABLE, exc.getMessage(), request,
+                retryAfter(exc.getRetryAfterSeconds()));
+    }
+
+    // the client of a stream went away, there is no response left to write to
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientGone(AsyncRequestNotUsableException exc) {
+    }
+
+    // generic handler for any unhandled exception, the details go to the log and not to the client
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<TaskErrorResponse> handleGenericException(Exception exc, HttpServletRequest request) {
+        return respond(new TaskErrorResponse(), exc, HttpStatus.INTERNAL_SERVER_ERROR, UNEXPECTED_ERROR, request, PROBLEM_HEADERS);
     }
 
     //handle empty data inputs
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<TaskErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
+    public ResponseEntity<TaskErrorResponse> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest request) {
 
         String errorMessage = ex.getBindingResult()
                 .getFieldErrors()
@@ -45,11 +108,60 @@ public class TaskExceptionHandler {
                 .findFirst()
                 .orElse("Validation failed");
 
-        TaskErrorResponse error = new TaskErrorResponse();
-        error.setStatus(HttpStatus.BAD_REQUEST.value());
-        error.setMessage(errorMessage);
+        return respond(new TaskErrorResponse(), ex, HttpStatus.BAD_REQUEST, errorMessage, request, PROBLEM_HEADERS);
+    }
+
+    private <T extends TaskErrorResponse> ResponseEntity<T> respond(T error, Exception exc, HttpStatus status, String detail,
+                                                                    HttpServletRequest request, HttpHeaders headers) {
+        error.setType(PROBLEM_TYPE);
+        error.setTitle(status.getReasonPhrase());
+        error.setStatus(status.value());
+        error.setDetail(detail);
+        error.setInstance(request.getRequestURI());
+        error.setMessage(detail);
         error.setTimeStamp(System.currentTimeMillis());
 
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        count(exc, status);
+        log(exc, status, request);
+        return new ResponseEntity<>(error, headers, status);
+    }
+
+    // server errors with their stack trace, client errors as one line. both sampled per exception type
+    private void log(Exception exc, HttpStatus status, HttpServletRequest request) {
+        boolean serverError = status.is5xxServerError();
+        if (serverError ? !log.isErrorEnabled() : !log.isInfoEnabled()) {
+            return;
+        }
+
+        long suppressed = logSampler.sample(exc.getClass());
+        if (suppressed == ErrorLogSampler.SUPPRESSED) {
+            return;
+        }
+        if (serverError) {
+            log.error("{} {} failed ({} similar not logged)", request.getMethod(), request.getRequestURI(), suppressed, exc);
+        } else {
+            log.info("{} {} answered {}: {} ({} similar not logged)", request.getMethod(), request.getRequestURI(),
+                    status.value(), exc.getMessage(), suppressed);
+        }
+    }
+
+    // one counter per exception type and response status, scraped with the other metrics.
+    // a type is always answered with the same status, so the counter is looked up by type alone
+    private void count(Exception exc, HttpStatus status) {
+        counters.computeIfAbsent(exc.getClass(), type -> meterRegistry.counter("task.exceptions",
+                "type", type.getSimpleName(),
+                "status", String.valueOf(status.value()))).increment();
+    }
+
+    private static HttpHeaders retryAfter(long seconds) {
+        HttpHeaders headers = problemHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        return headers;
+    }
+
+    private static HttpHeaders problemHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        return headers;
     }
 }
@@ -0,0 +1,8 @@
+package com.todo.backend.exception;
+
+public class TaskImportNotFoundException extends TaskDomainException {
+
+    public TaskImportNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.todo.backend.exception;
+
+public class TaskImportTooLargeException extends TaskDomainException {
+
+    public TaskImportTooLargeException(String message) {
+        super(message);
+    }
+}
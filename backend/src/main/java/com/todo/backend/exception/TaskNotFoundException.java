@@ -1,6 +1,6 @@
 package com.todo.backend.exception;
 
-public class TaskNotFoundException extends RuntimeException {
+public class TaskNotFoundException extends TaskDomainException {
 
     public TaskNotFoundException(String message) {
         super(message);
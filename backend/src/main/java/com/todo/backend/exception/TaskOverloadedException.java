@@ -0,0 +1,15 @@
+package com.todo.backend.exception;
+
+public class TaskOverloadedException extends TaskDomainException {
+
+    private final long retryAfterSeconds;
+
+    public TaskOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
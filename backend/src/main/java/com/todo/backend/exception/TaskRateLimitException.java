@@ -0,0 +1,15 @@
+package com.todo.backend.exception;
+
+public class TaskRateLimitException extends TaskDomainException {
+
+    private final long retryAfterSeconds;
+
+    public TaskRateLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.todo.backend.exception.error;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+public class BatchErrorResponse extends TaskErrorResponse {
+    private List<BatchItemError> errors = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.todo.backend.exception.error;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemError {
+    private Integer index;
+    private String field;
+    private String message;
+}
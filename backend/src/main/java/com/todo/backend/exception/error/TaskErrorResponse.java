@@ -3,10 +3,15 @@ package com.todo.backend.exception.error;
 import lombok.Getter;
 import lombok.Setter;
 
+// rfc 7807 problem details. message repeats detail and timeStamp stays for clients of the older body
 @Setter
 @Getter
 public class TaskErrorResponse {
+    private String type;
+    private String title;
     private Integer status;
+    private String detail;
+    private String instance;
     private String message;
     private Long timeStamp;
 }
@@ -0,0 +1,49 @@
+package com.todo.backend.jdbc;
+
+import java.util.function.Supplier;
+
+// read-only transactions of a thread pinned to the primary skip the replicas.
+// set by ReplicaRoutingFilter for the whole of a request, so a client reads its own writes.
+// a read served by a replica records how far that replica was in sync, see TaskController
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Long> REPLICA_SYNCED_TO = ThreadLocal.withInitial(() -> Long.MAX_VALUE);
+
+    private ReplicaRouting() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(true);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get();
+    }
+
+    // runs the read on the primary, whether the thread is pinned or not
+    public static <T> T onPrimary(Supplier<T> read) {
+        boolean pinned = PINNED.get();
+        PINNED.set(true);
+        try {
+            return read.get();
+        } finally {
+            PINNED.set(pinned);
+        }
+    }
+
+    // called with the heartbeat the replica had at its last check, the oldest replica read counts
+    static void readFromReplica(long syncedToMillis) {
+        REPLICA_SYNCED_TO.set(Math.min(REPLICA_SYNCED_TO.get(), syncedToMillis));
+    }
+
+    // Long.MAX_VALUE while the thread has read nothing from a replica
+    public static long getReplicaSyncedToMillis() {
+        return REPLICA_SYNCED_TO.get();
+    }
+
+    public static void clear() {
+        PINNED.remove();
+        REPLICA_SYNCED_TO.remove();
+    }
+}
@@ -0,0 +1,170 @@
+package com.todo.backend.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// sends read-only transactions to a replica and everything else to the primary. the physical connection
+// is only taken at the first statement, after the transaction has marked it read-only.
+// every check-interval the primary writes a heartbeat and each replica reads it back, a replica that
+// fails or lags more than max-lag behind is skipped until a later check passes. with no replica left,
+// or on a thread pinned by ReplicaRouting, reads go to the primary. checks start with start(), once
+// the migrations have created the heartbeat table
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+    private static final String READ_HEARTBEAT = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // null until start
+    private ScheduledExecutorService checker;
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+
+        // unknown until the first check, so a replica is not read before it was seen in sync
+        private volatile boolean usable;
+
+        // the primary's heartbeat as the replica had it at the last check, it holds every commit before that
+        private volatile long syncedToMillis;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    Duration maxLag, Duration checkInterval) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool.getPoolName(), pool)).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        this.checkIntervalMillis = checkInterval.toMillis();
+        setReadOnlyDataSource(new ReplicaDataSource());
+    }
+
+    // replicas take no reads before the first check
+    public synchronized void start() {
+        if (checker != null) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-check").daemon(true).factory());
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // writes the heartbeat, then compares what every replica has of it
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(WRITE_HEARTBEAT)) {
+            statement.setLong(1, now);
+            statement.executeUpdate();
+        } catch (SQLException exc) {
+            // replicas are still checked, against the last heartbeat that made it
+            log.warn("replica heartbeat could not be written: {}", exc.toString());
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(READ_HEARTBEAT);
+                 ResultSet resultSet = statement.executeQuery()) {
+
+                long syncedTo = resultSet.next() ? resultSet.getLong(1) : 0;
+                long lag = syncedTo > 0 ? Math.max(0, now - syncedTo) : Long.MAX_VALUE;
+                replica.syncedToMillis = syncedTo;
+                if (lag > maxLagMillis) {
+                    setUsable(replica, false, "lags " + lag + " ms behind");
+                } else {
+                    setUsable(replica, true, "in sync");
+                }
+            } catch (SQLException exc) {
+                setUsable(replica, false, exc.toString());
+            }
+        }
+    }
+
+    // replicas that currently take reads
+    public List<String> getUsableReplicas() {
+        return replicas.stream().filter(replica -> replica.usable).map(replica -> replica.name).toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (checker != null) {
+                checker.shutdownNow();
+            }
+        }
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void setUsable(Replica replica, boolean usable, String reason) {
+        if (replica.usable != usable) {
+            log.info("replica {} {} reads: {}", replica.name, usable ? "takes" : "no longer takes", reason);
+        }
+        replica.usable = usable;
+    }
+
+    // round robin over usable replicas, a replica that refuses a connection is skipped until the next check
+    private class ReplicaDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!ReplicaRouting.isPinnedToPrimary() && !replicas.isEmpty()) {
+                int start = nextReplica.getAndIncrement();
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                    if (!replica.usable) {
+                        continue;
+                    }
+                    try {
+                        Connection connection = replica.dataSource.getConnection();
+                        ReplicaRouting.readFromReplica(replica.syncedToMillis);
+                        return connection;
+                    } catch (SQLException exc) {
+                        setUsable(replica, false, exc.toString());
+                    }
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+        }
+    }
+}
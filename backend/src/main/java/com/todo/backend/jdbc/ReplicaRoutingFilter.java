@@ -0,0 +1,79 @@
+package com.todo.backend.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// read-your-writes with replicas: a request that may change tasks is pinned to the primary and marks
+// its client with a cookie, requests of that client stay on the primary for read-your-writes-window.
+// the window has to cover max-lag, the check interval and the longest write request
+@Component
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+
+    static final String LAST_WRITE_COOKIE = "task-last-write";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final boolean enabled;
+    private final long windowMillis;
+
+    public ReplicaRoutingFilter(@Value("${task.datasource.replicas.enabled:false}") boolean enabled,
+                                @Value("${task.datasource.replicas.read-your-writes-window:10s}") Duration window) {
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // set before the body is written, the response may be committed once the handler returns
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) ((windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+            ReplicaRouting.pinToPrimary();
+        } else if (now - lastWrite(request) < windowMillis) {
+            ReplicaRouting.pinToPrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.clear();
+        }
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException exc) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.todo.backend.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// puts the configured datasource behind ReplicaRoutingDataSource when replicas are enabled.
+// runs before SqlInspectionPostProcessor, so statements are counted whichever database runs them.
+// replica checks start once the application is ready, after flyway has created the heartbeat table
+@Component
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final boolean enabled;
+    private final List<String> urls;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final Duration connectionTimeout;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    // null while replicas are off
+    private volatile ReplicaRoutingDataSource routing;
+
+    public ReplicaRoutingPostProcessor(@Value("${task.datasource.replicas.enabled:false}") boolean enabled,
+                                       @Value("${task.datasource.replicas.urls:}") List<String> urls,
+                                       @Value("${task.datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                       @Value("${task.datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                       @Value("${task.datasource.replicas.pool-size:10}") int poolSize,
+                                       @Value("${task.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                       @Value("${task.datasource.replicas.max-lag:2s}") Duration maxLag,
+                                       @Value("${task.datasource.replicas.check-interval:1s}") Duration checkInterval) {
+        this.enabled = enabled;
+        this.urls = urls.stream().filter(url -> !url.isBlank()).toList();
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.connectionTimeout = connectionTimeout;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+            return bean;
+        }
+
+        List<HikariDataSource> replicaPools = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls.get(i));
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setReadOnly(true);
+            // a replica that is down at startup is only skipped, the application still starts
+            pool.setInitializationFailTimeout(-1);
+            replicaPools.add(pool);
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicaPools, maxLag, checkInterval);
+        return routing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicaChecks() {
+        if (routing != null) {
+            routing.start();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
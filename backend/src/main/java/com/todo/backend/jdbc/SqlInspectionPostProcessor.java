@@ -0,0 +1,36 @@
+package com.todo.backend.jdbc;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// wraps the connection pool so every statement, from hibernate or jdbc templates, passes SqlStatementListener
+@Component
+public class SqlInspectionPostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final SqlStatementListener listener;
+
+    public SqlInspectionPostProcessor(@Value("${task.sql.inspection.enabled:true}") boolean enabled,
+                                      @Value("${task.sql.slow-threshold:200ms}") Duration slowThreshold,
+                                      @Value("${task.sql.log-sample-rate:0}") double logSampleRate) {
+        this.enabled = enabled;
+        this.listener = new SqlStatementListener(slowThreshold.toMillis(), logSampleRate);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(listener)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.todo.backend.jdbc;
+
+// statements run by the current thread since its last reset, fed by SqlStatementListener.
+// request threads are reset by SqlStatementFilter, tests reset it around the code they measure
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<SqlStatementCounts> COUNTS = ThreadLocal.withInitial(SqlStatementCounts::new);
+
+    private SqlStatementCounter() {
+    }
+
+    public static void reset() {
+        COUNTS.get().clear();
+    }
+
+    // a copy, later statements do not change it
+    public static SqlStatementCounts current() {
+        return COUNTS.get().copy();
+    }
+
+    static void record(SqlStatementKind kind) {
+        COUNTS.get().record(kind);
+    }
+}
@@ -0,0 +1,52 @@
+package com.todo.backend.jdbc;
+
+import lombok.Getter;
+
+// one count per execution, so a jdbc batch of many rows is a single statement
+@Getter
+public class SqlStatementCounts {
+
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int others;
+
+    public int getTotal() {
+        return selects + inserts + updates + deletes + others;
+    }
+
+    void record(SqlStatementKind kind) {
+        switch (kind) {
+            case SELECT -> selects++;
+            case INSERT -> inserts++;
+            case UPDATE -> updates++;
+            case DELETE -> deletes++;
+            case OTHER -> others++;
+        }
+    }
+
+    void clear() {
+        selects = 0;
+        inserts = 0;
+        updates = 0;
+        deletes = 0;
+        others = 0;
+    }
+
+    SqlStatementCounts copy() {
+        SqlStatementCounts copy = new SqlStatementCounts();
+        copy.selects = selects;
+        copy.inserts = inserts;
+        copy.updates = updates;
+        copy.deletes = deletes;
+        copy.others = others;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "select=" + selects + " insert=" + inserts + " update=" + updates
+                + " delete=" + deletes + " other=" + others;
+    }
+}
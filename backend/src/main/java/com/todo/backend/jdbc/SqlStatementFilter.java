@@ -0,0 +1,67 @@
+package com.todo.backend.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// statements per request as the task.sql.statements summary, and a warning for requests over the limit.
+// statements of async work, like a streamed export, run on other threads and are not counted here
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int statementLimit;
+
+    public SqlStatementFilter(MeterRegistry meterRegistry,
+                              @Value("${task.sql.inspection.enabled:true}") boolean enabled,
+                              @Value("${task.sql.request-statement-limit:20}") int statementLimit) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.statementLimit = statementLimit;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SqlStatementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounts counts = SqlStatementCounter.current();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+            DistributionSummary.builder("task.sql.statements")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(counts.getTotal());
+
+            if (counts.getTotal() > statementLimit) {
+                log.warn("{} {} ran {} sql statements, limit is {} ({})",
+                        request.getMethod(), uri, counts.getTotal(), statementLimit, counts);
+            }
+        }
+    }
+}
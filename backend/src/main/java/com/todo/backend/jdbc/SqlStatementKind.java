@@ -0,0 +1,26 @@
+package com.todo.backend.jdbc;
+
+import java.util.Locale;
+
+enum SqlStatementKind {
+
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    // decided by the leading keyword
+    static SqlStatementKind of(String sql) {
+        String trimmed = sql.stripLeading();
+
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+
+        return switch (trimmed.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> SELECT;
+            case "insert" -> INSERT;
+            case "update" -> UPDATE;
+            case "delete" -> DELETE;
+            default -> OTHER;
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.todo.backend.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// counts every statement for the calling thread, logs slow ones with their bind values
+// and a sample of the rest as single key=value lines
+class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    // an import batch binds thousands of rows, only the first few are logged
+    private static final int MAX_LOGGED_PARAMETER_SETS = 5;
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+
+    private final long slowThresholdMillis;
+    private final double logSampleRate;
+
+    SqlStatementListener(long slowThresholdMillis, double logSampleRate) {
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            SqlStatementCounter.record(SqlStatementKind.of(queryInfo.getQuery()));
+        }
+
+        if (execInfo.getElapsedTime() >= slowThresholdMillis) {
+            if (log.isWarnEnabled()) {
+                log.warn("slow sql {}", describe(execInfo, queryInfoList));
+            }
+        } else if (logSampleRate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.info("sql {}", describe(execInfo, queryInfoList));
+        }
+    }
+
+    private static String describe(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StringBuilder line = new StringBuilder()
+                .append("elapsedMs=").append(execInfo.getElapsedTime())
+                .append(" success=").append(execInfo.isSuccess())
+                .append(" batchSize=").append(execInfo.getBatchSize())
+                .append(" connection=").append(execInfo.getConnectionId());
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            line.append(" sql=\"").append(queryInfo.getQuery()).append('"');
+
+            List<List<ParameterSetOperation>> parameterSets = queryInfo.getParametersList();
+            if (parameterSets.stream().anyMatch(parameters -> !parameters.isEmpty())) {
+                line.append(" params=");
+                appendParameters(line, parameterSets);
+            }
+        }
+
+        return line.toString();
+    }
+
+    private static void appendParameters(StringBuilder line, List<List<ParameterSetOperation>> parameterSets) {
+        line.append('[');
+
+        int logged = Math.min(parameterSets.size(), MAX_LOGGED_PARAMETER_SETS);
+        for (int i = 0; i < logged; i++) {
+            List<ParameterSetOperation> parameters = parameterSets.get(i).stream()
+                    .sorted(Comparator.comparingInt(SqlStatementListener::parameterIndex))
+                    .toList();
+
+            line.append(i == 0 ? "(" : ", (");
+            for (int j = 0; j < parameters.size(); j++) {
+                line.append(j == 0 ? "" : ", ").append(format(parameters.get(j)));
+            }
+            line.append(')');
+        }
+
+        if (parameterSets.size() > logged) {
+            line.append(", ... ").append(parameterSets.size() - logged).append(" more");
+        }
+        line.append(']');
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        return operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE;
+    }
+
+    private static String format(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+
+        Object[] args = operation.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (!(value instanceof CharSequence)) {
+            return String.valueOf(value);
+        }
+
+        String text = value.toString();
+        if (text.length() > MAX_LOGGED_VALUE_LENGTH) {
+            text = text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+        }
+        return "'" + text.replace("'", "''") + "'";
+    }
+}
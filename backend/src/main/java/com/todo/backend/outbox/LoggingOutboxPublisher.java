@@ -0,0 +1,23 @@
+package com.todo.backend.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// default publisher until a broker is wired in, events only reach the log
+@Component
+@ConditionalOnProperty(name = "task.outbox.publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxPublisher.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("outbox event id={} type={} aggregateId={}", event.getId(), event.getType(), event.getAggregateId());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.todo.backend.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// one row of task_outbox, the id is null until the row is written.
+// aggregateId is the primary key of the task, payload is json and only set for created tasks
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OutboxEvent {
+
+    private Long id;
+    private long aggregateId;
+    private OutboxEventType type;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,6 @@
+package com.todo.backend.outbox;
+
+public enum OutboxEventType {
+    TASK_CREATED,
+    TASK_COMPLETED
+}
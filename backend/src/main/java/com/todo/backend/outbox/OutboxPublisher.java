@@ -0,0 +1,11 @@
+package com.todo.backend.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+// hands outbox events to a downstream system, chosen with task.outbox.publisher.
+// a batch that throws is published again, so a publisher may see the same event more than once
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,128 @@
+package com.todo.backend.outbox;
+
+import com.todo.backend.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// moves outbox events to the publisher in id order on one background thread.
+// rows are deleted only after the publisher accepted their batch, so every event is delivered at
+// least once, and a failed batch is retried before anything newer, which keeps the events of a task
+// in order. the relay reads task_outbox by primary key and never touches the task table: an empty
+// outbox is polled less and less often, and commits that wrote events wake the relay up instead.
+// one relay per database, other instances run with task.outbox.relay.enabled=false
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long maxPollIntervalMillis;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private Thread relayThread;
+
+    public OutboxRelay(TaskOutboxRepository taskOutboxRepository,
+                       OutboxPublisher outboxPublisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${task.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${task.outbox.batch-size:500}") int batchSize,
+                       @Value("${task.outbox.poll-interval:1s}") Duration pollInterval,
+                       @Value("${task.outbox.max-poll-interval:30s}") Duration maxPollInterval) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.maxPollIntervalMillis = maxPollInterval.toMillis();
+
+        this.publishedEvents = Counter.builder("task.outbox.published")
+                .description("Outbox events accepted by the publisher")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("task.outbox.failures")
+                .description("Outbox batches the publisher rejected, they are retried")
+                .register(meterRegistry);
+    }
+
+    // started once the schema is migrated and the application serves requests
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (enabled && relayThread == null) {
+            relayThread = Thread.ofPlatform().name("task-outbox-relay").daemon(true).start(this::run);
+        }
+    }
+
+    // called after a commit that wrote events
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (relayThread != null) {
+            relayThread.interrupt();
+        }
+    }
+
+    // publishes and deletes the oldest batch, returns the number of events published
+    int drain() throws IOException {
+        List<OutboxEvent> events = taskOutboxRepository.findOldest(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        outboxPublisher.publish(events);
+        taskOutboxRepository.deleteAll(events.stream().map(OutboxEvent::getId).toList());
+        publishedEvents.increment(events.size());
+
+        return events.size();
+    }
+
+    private void run() {
+        long delayMillis = pollIntervalMillis;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                int published = drain();
+                if (published == batchSize) {
+                    // more events are waiting
+                    continue;
+                }
+                delayMillis = published > 0 ? pollIntervalMillis : Math.min(delayMillis * 2, maxPollIntervalMillis);
+
+                wakeUps.tryAcquire(delayMillis, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException exc) {
+                return;
+            } catch (Exception exc) {
+                // commits do not wake a failing relay, the retry waits for the back-off
+                failedBatches.increment();
+                delayMillis = Math.min(delayMillis * 2, maxPollIntervalMillis);
+                log.warn("outbox publish failed, retrying in {} ms: {}", delayMillis, exc.toString());
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
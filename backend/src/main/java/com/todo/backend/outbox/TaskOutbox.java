@@ -0,0 +1,64 @@
+package com.todo.backend.outbox;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.repository.TaskOutboxRepository;
+import com.todo.backend.util.AfterCommit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// records task changes for downstream systems. every method joins the transaction that changes
+// the tasks, so an event exists exactly when its change was committed
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class TaskOutbox {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectWriter payloadWriter;
+
+    public TaskOutbox(TaskOutboxRepository taskOutboxRepository,
+                      OutboxRelay outboxRelay,
+                      ObjectMapper objectMapper) {
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.payloadWriter = objectMapper.writerFor(TaskView.class);
+    }
+
+    public void tasksCreated(List<TaskView> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = tasks.stream()
+                .map(task -> new OutboxEvent(null, task.getId(), OutboxEventType.TASK_CREATED,
+                        payloadWriter.writeValueAsString(task), now))
+                .toList();
+
+        taskOutboxRepository.insertAll(events);
+        AfterCommit.run(outboxRelay::wakeUp);
+    }
+
+    // for a task the caller has just completed
+    public void taskCompleted(long id) {
+        taskOutboxRepository.insertAll(List.of(
+                new OutboxEvent(null, id, OutboxEventType.TASK_COMPLETED, null, LocalDateTime.now())));
+        AfterCommit.run(outboxRelay::wakeUp);
+    }
+
+    // the two methods below must run before the update, they pick the tasks that are still open
+    public void tasksCompleting(Collection<Long> ids) {
+        if (taskOutboxRepository.insertCompletedIn(ids, LocalDateTime.now()) > 0) {
+            AfterCommit.run(outboxRelay::wakeUp);
+        }
+    }
+
+    public void tasksCompletingBefore(LocalDateTime createdBefore) {
+        if (taskOutboxRepository.insertCompletedBefore(createdBefore, LocalDateTime.now()) > 0) {
+            AfterCommit.run(outboxRelay::wakeUp);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.todo.backend.repository;
+
+import com.todo.backend.dto.ArchivedTask;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// plain jdbc access to task_archive. a batch is claimed, copied and deleted by primary key in one short
+// transaction, completed rows are never written by requests, so only cold rows are locked
+@Repository
+public class TaskArchiveRepository {
+
+    // walks idx_task_completed_created_at, archived rows are gone from it by the next batch.
+    // rows claimed by the pass of another instance are skipped instead of copied a second time
+    private static final String FIND_ARCHIVABLE =
+            "SELECT id FROM task WHERE completed = true AND created_at < ? ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String COPY_IN =
+            "INSERT INTO task_archive (id, task_id, title, description, created_at, archived_at) " +
+            "SELECT id, task_id, title, description, created_at, :archivedAt FROM task WHERE id IN (:ids) AND completed = true";
+
+    private static final String DELETE_IN = "DELETE FROM task WHERE id IN (:ids) AND completed = true";
+
+    private static final String SELECT_ARCHIVED =
+            "SELECT id, task_id, title, description, created_at, archived_at FROM task_archive ";
+
+    private static final String FIND_ARCHIVED_IDS = "SELECT id FROM task_archive WHERE id IN (:ids)";
+
+    private static final RowMapper<ArchivedTask> ARCHIVED_TASK_MAPPER = (resultSet, rowNum) -> new ArchivedTask(
+            resultSet.getLong("id"),
+            resultSet.getString("task_id"),
+            resultSet.getString("title"),
+            resultSet.getString("description"),
+            resultSet.getTimestamp("created_at").toLocalDateTime(),
+            resultSet.getTimestamp("archived_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TaskArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // ids of the oldest completed tasks created before the cut off, locked until the transaction ends
+    public List<Long> findArchivable(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.queryForList(FIND_ARCHIVABLE, Long.class, Timestamp.valueOf(createdBefore), limit);
+    }
+
+    // copies the tasks to the archive and removes them from the task table, returns the number moved
+    public int moveToArchive(Collection<Long> ids, LocalDateTime archivedAt) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(archivedAt));
+        namedJdbcTemplate.update(COPY_IN, parameters);
+        return namedJdbcTemplate.update(DELETE_IN, parameters);
+    }
+
+    public Optional<ArchivedTask> findById(long id) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + "WHERE id = ?", ARCHIVED_TASK_MAPPER, id).stream().findFirst();
+    }
+
+    public Optional<ArchivedTask> findByTaskId(String taskId) {
+        return jdbcTemplate.query(SELECT_ARCHIVED + "WHERE task_id = ?", ARCHIVED_TASK_MAPPER, taskId).stream().findFirst();
+    }
+
+    // ids out of the given ones that were archived
+    public List<Long> findArchivedIds(Collection<Long> ids) {
+        return namedJdbcTemplate.queryForList(FIND_ARCHIVED_IDS, new MapSqlParameterSource("ids", ids), Long.class);
+    }
+}
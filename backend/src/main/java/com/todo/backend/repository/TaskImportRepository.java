@@ -0,0 +1,36 @@
+package com.todo.backend.repository;
+
+import com.todo.backend.entity.Task;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// plain jdbc batch insert for imports, tasks arrive with their keys and never need to be managed
+@Repository
+public class TaskImportRepository {
+
+    private static final String INSERT_TASK =
+            "INSERT INTO task (id, task_id, title, description, created_at, completed, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // one batched statement for the whole list, joins the surrounding transaction
+    @Timed("task.import.insert")
+    public void insertAll(List<Task> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, tasks.size(), (statement, task) -> {
+            statement.setLong(1, task.getId());
+            statement.setString(2, task.getTaskId());
+            statement.setString(3, task.getTitle());
+            statement.setString(4, task.getDescription());
+            statement.setTimestamp(5, Timestamp.valueOf(task.getCreatedAt()));
+            statement.setBoolean(6, task.getCompleted());
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.todo.backend.repository;
+
+import com.todo.backend.outbox.OutboxEvent;
+import com.todo.backend.outbox.OutboxEventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// plain jdbc access to task_outbox, writes join the transaction that changes the tasks
+@Repository
+public class TaskOutboxRepository {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO task_outbox (aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    // the open tasks out of the given ones, must run before the update that completes them.
+    // ordered, so the auto increment ids follow the task ids on every database and replica
+    private static final String INSERT_COMPLETED_IN =
+            "INSERT INTO task_outbox (aggregate_id, event_type, created_at) " +
+            "SELECT id, :type, :createdAt FROM task WHERE id IN (:ids) AND completed = false ORDER BY id";
+
+    private static final String INSERT_COMPLETED_BEFORE =
+            "INSERT INTO task_outbox (aggregate_id, event_type, created_at) " +
+            "SELECT id, :type, :createdAt FROM task WHERE created_at < :createdBefore AND completed = false ORDER BY id";
+
+    // walks the primary key only, the relay never reads the task table
+    private static final String FIND_OLDEST =
+            "SELECT id, aggregate_id, event_type, payload, created_at FROM task_outbox ORDER BY id LIMIT ?";
+
+    private static final String DELETE_IN = "DELETE FROM task_outbox WHERE id IN (:ids)";
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (resultSet, rowNum) -> new OutboxEvent(
+            resultSet.getLong("id"),
+            resultSet.getLong("aggregate_id"),
+            OutboxEventType.valueOf(resultSet.getString("event_type")),
+            resultSet.getString("payload"),
+            resultSet.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TaskOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // one batched statement for the whole list
+    public void insertAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, events.size(), (statement, event) -> {
+            statement.setLong(1, event.getAggregateId());
+            statement.setString(2, event.getType().name());
+            statement.setString(3, event.getPayload());
+            statement.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    public int insertCompletedIn(Collection<Long> ids, LocalDateTime createdAt) {
+        return namedJdbcTemplate.update(INSERT_COMPLETED_IN, new MapSqlParameterSource()
+                .addValue("type", OutboxEventType.TASK_COMPLETED.name())
+                .addValue("createdAt", Timestamp.valueOf(createdAt))
+                .addValue("ids", ids));
+    }
+
+    public int insertCompletedBefore(LocalDateTime createdBefore, LocalDateTime createdAt) {
+        return namedJdbcTemplate.update(INSERT_COMPLETED_BEFORE, new MapSqlParameterSource()
+                .addValue("type", OutboxEventType.TASK_COMPLETED.name())
+                .addValue("createdAt", Timestamp.valueOf(createdAt))
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore)));
+    }
+
+    public List<OutboxEvent> findOldest(int limit) {
+        return jdbcTemplate.query(FIND_OLDEST, EVENT_MAPPER, limit);
+    }
+
+    // by id, never by range: a lower id from a transaction that commits late must not be lost
+    public int deleteAll(Collection<Long> ids) {
+        return namedJdbcTemplate.update(DELETE_IN, new MapSqlParameterSource("ids", ids));
+    }
+}
@@ -1,24 +1,98 @@
 package com.todo.backend.repository;
 
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    // find last saved task id
-    Optional<Task> findTopByOrderByIdDesc();
+    // highest task id, read from the end of the primary key without fetching the row
+    @Query("SELECT MAX(t.id) FROM Task t")
+    Optional<Long> findMaxId();
 
-    //find recent tasks
-    @Query(
-            value = "SELECT * FROM task WHERE completed = false ORDER BY id DESC LIMIT 5",
-            nativeQuery = true
-    )
-    List<Task> findRecentTasks();
+    //find recent tasks, walks idx_task_completed_id backwards and stops after five entries
+    @Query("SELECT new com.todo.backend.dto.TaskView(t.id, t.taskId, t.title, t.description, t.createdAt, t.completed) " +
+            "FROM Task t WHERE t.completed = false ORDER BY t.id DESC LIMIT 5")
+    List<TaskView> findRecentTasks();
 
+    // keyset page, newest first, continues below afterId so deep pages cost the same as the first
+    @Query("SELECT new com.todo.backend.dto.TaskSummary(t.id, t.taskId, t.title, t.completed, t.createdAt) " +
+            "FROM Task t " +
+            "WHERE (:afterId IS NULL OR t.id < :afterId) " +
+            "AND (:completed IS NULL OR t.completed = :completed) " +
+            "AND (:createdFrom IS NULL OR t.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR t.createdAt < :createdTo) " +
+            "ORDER BY t.id DESC")
+    List<TaskSummary> findPage(@Param("afterId") Long afterId,
+                               @Param("completed") Boolean completed,
+                               @Param("createdFrom") LocalDateTime createdFrom,
+                               @Param("createdTo") LocalDateTime createdTo,
+                               Limit limit);
+
+    // every task in id order over a forward only cursor, rows arrive in chunks of the fetch size
+    // and are projections, so nothing is kept in the persistence context while the stream is read
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.todo.backend.dto.TaskView(t.id, t.taskId, t.title, t.description, t.createdAt, t.completed) " +
+            "FROM Task t ORDER BY t.id")
+    Stream<TaskView> streamAll();
+
+    // one task by its business id, through uk_task_task_id
+    @Query("SELECT new com.todo.backend.dto.TaskView(t.id, t.taskId, t.title, t.description, t.createdAt, t.completed) " +
+            "FROM Task t WHERE t.taskId = :taskId")
+    Optional<TaskView> findViewByTaskId(@Param("taskId") String taskId);
+
+    // primary key of a task id, read from uk_task_task_id alone
+    @Query("SELECT t.id FROM Task t WHERE t.taskId = :taskId")
+    Optional<Long> findIdByTaskId(@Param("taskId") String taskId);
+
+    // ids out of the given ones that exist, without loading the rows
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // open tasks out of the given ones, locked until the transaction ends so an update of exactly
+    // these ids changes every one of them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND t.completed = false")
+    List<Long> findOpenIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    // complete one task if it is still open, returns 0 when it is missing or was completed already
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = true, t.version = t.version + 1 WHERE t.id = :id AND t.completed = false")
+    int completeTask(@Param("id") Long id);
+
+    // complete many tasks in one statement
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = true, t.version = t.version + 1 WHERE t.id IN :ids AND t.completed = false")
+    int completeTasks(@Param("ids") Collection<Long> ids);
+
+    // complete every open task created before the given time
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.completed = true, t.version = t.version + 1 WHERE t.createdAt < :createdBefore AND t.completed = false")
+    int completeTasksCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
 }
@@ -0,0 +1,25 @@
+package com.todo.backend.repository;
+
+import com.todo.backend.entity.TaskSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskSequenceRepository extends JpaRepository<TaskSequence, String> {
+
+    // move the sequence forward by a whole block, the row lock serializes concurrent reservations
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE TaskSequence s SET s.nextVal = s.nextVal + :blockSize WHERE s.name = :name")
+    int reserveBlock(@Param("name") String name, @Param("blockSize") long blockSize);
+
+    // plain insert so a concurrent initialization fails on the primary key instead of being merged
+    @Modifying
+    @Query(
+            value = "INSERT INTO task_sequence (name, next_val) VALUES (:name, :nextVal)",
+            nativeQuery = true
+    )
+    int createSequence(@Param("name") String name, @Param("nextVal") long nextVal);
+}
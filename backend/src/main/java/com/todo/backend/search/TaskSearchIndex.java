@@ -0,0 +1,352 @@
+package com.todo.backend.search;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// lucene index over task titles and descriptions, in memory unless task.search.directory is set.
+// the services report every committed change and all fields are stored, so a search never reads the
+// task table. changes that arrive while the index is rebuilt are applied again once it is done.
+// writes only go to the index writer, searches see them after the next refresh, at most refresh-interval
+// later. completions have to search for the documents they rewrite and run on the background thread
+@Component
+public class TaskSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String TASK_ID = "taskId";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String CREATED_AT = "createdAt";
+    private static final String COMPLETED = "completed";
+
+    // a title match ranks above the same match in a description
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, DESCRIPTION, 1f);
+
+    // best match first, newest first among equal scores
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+
+    private static final int UPDATE_PAGE = 1000;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    private final ScheduledExecutorService committer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("task-search-commit").daemon(true).factory());
+
+    // changes seen during a rebuild, guarded by replay
+    private final List<IndexChange> replay = new ArrayList<>();
+    private boolean rebuilding;
+
+    public TaskSearchIndex(@Value("${task.search.directory:}") String directory,
+                           @Value("${task.search.refresh-interval:1s}") Duration refreshInterval,
+                           @Value("${task.search.commit-interval:30s}") Duration commitInterval) throws IOException {
+        this.directory = directory.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directory));
+        this.indexWriter = new IndexWriter(this.directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+
+        // one reader reopen per interval however many writes, a file index survives a restart up to its last commit
+        committer.scheduleWithFixedDelay(this::maybeRefresh,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        committer.scheduleWithFixedDelay(this::commit,
+                commitInterval.toMillis(), commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void tasksCreated(List<TaskView> tasks) {
+        List<TaskView> created = List.copyOf(tasks);
+        AfterCommit.run(() -> apply(() -> {
+            for (TaskView task : created) {
+                indexWriter.updateDocument(new Term(ID, task.getId().toString()), toDocument(task));
+            }
+        }));
+    }
+
+    public void tasksCompleted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Query query = new TermInSetQuery(ID, ids.stream().map(id -> new BytesRef(id.toString())).toList());
+        AfterCommit.run(() -> applyInBackground(() -> markCompleted(query)));
+    }
+
+    // archived tasks are no longer searchable
+    public void tasksArchived(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Query query = new TermInSetQuery(ID, ids.stream().map(id -> new BytesRef(id.toString())).toList());
+        AfterCommit.run(() -> apply(() -> indexWriter.deleteDocuments(query)));
+    }
+
+    // the same open tasks the bulk update completed
+    public void tasksCompletedBefore(LocalDateTime createdBefore) {
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(COMPLETED, "false")), BooleanClause.Occur.FILTER)
+                .add(LongPoint.newRangeQuery(CREATED_AT, Long.MIN_VALUE, toNanos(createdBefore) - 1), BooleanClause.Occur.FILTER)
+                .build();
+        AfterCommit.run(() -> applyInBackground(() -> markCompleted(query)));
+    }
+
+    // hits offset to offset + limit of the ranked results
+    public List<TaskView> search(String text, Boolean completed, int offset, int limit) throws IOException {
+        // every word has to match in the title or the description, syntax errors are read as plain words
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(text);
+        if (textQuery == null) {
+            textQuery = new MatchNoDocsQuery();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (completed != null) {
+            query.add(new TermQuery(new Term(COMPLETED, completed.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            ScoreDoc[] hits = searcher.search(query.build(), offset + limit, RANKING, false).scoreDocs;
+
+            List<TaskView> tasks = new ArrayList<>();
+            for (int i = offset; i < hits.length; i++) {
+                tasks.add(toTask(searcher.storedFields().document(hits[i].doc)));
+            }
+            return tasks;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // replaces the whole index with the given tasks, the stream is opened only once
+    // changes are being recorded, so nothing committed meanwhile is lost
+    public synchronized long rebuild(Supplier<Stream<TaskView>> tasks) throws IOException {
+        synchronized (replay) {
+            rebuilding = true;
+        }
+
+        long count = 0;
+        try {
+            indexWriter.deleteAll();
+            try (Stream<TaskView> stream = tasks.get()) {
+                Iterator<TaskView> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    indexWriter.addDocument(toDocument(iterator.next()));
+                    count++;
+                }
+            }
+        } finally {
+            List<IndexChange> missed;
+            synchronized (replay) {
+                rebuilding = false;
+                missed = List.copyOf(replay);
+                replay.clear();
+            }
+            // each change searches for the documents it updates, so it must see the ones added before it
+            for (IndexChange change : missed) {
+                searcherManager.maybeRefreshBlocking();
+                change.run();
+            }
+            indexWriter.commit();
+            searcherManager.maybeRefreshBlocking();
+        }
+
+        return count;
+    }
+
+    // waits until every change reported so far is searchable
+    public void refresh() throws IOException {
+        try {
+            committer.submit(() -> {
+                searcherManager.maybeRefreshBlocking();
+                return null;
+            }).get();
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("search index refresh interrupted");
+        } catch (ExecutionException exc) {
+            throw new IOException("search index refresh failed", exc.getCause());
+        }
+    }
+
+    public int size() {
+        return indexWriter.getDocStats().numDocs;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdownNow();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    // an index that fell behind is brought back in line by a rebuild, a failed update never fails the write
+    private void apply(IndexChange change) {
+        record(change);
+        run(change);
+    }
+
+    // in order on the background thread, after a refresh that shows every write made before
+    private void applyInBackground(IndexChange change) {
+        record(change);
+        committer.execute(() -> run(() -> {
+            searcherManager.maybeRefreshBlocking();
+            change.run();
+        }));
+    }
+
+    private void record(IndexChange change) {
+        synchronized (replay) {
+            if (rebuilding) {
+                replay.add(change);
+            }
+        }
+    }
+
+    private static void run(IndexChange change) {
+        try {
+            change.run();
+        } catch (IOException exc) {
+            log.warn("search index update failed, rebuild the index to bring it back in line: {}", exc.toString());
+        }
+    }
+
+    private void maybeRefresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException exc) {
+            log.warn("search index refresh failed: {}", exc.toString());
+        }
+    }
+
+    // rewrites every matching open task as completed, in pages so a bulk update needs no large result
+    private void markCompleted(Query query) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            ScoreDoc after = null;
+            while (true) {
+                TopDocs page = searcher.searchAfter(after, query, UPDATE_PAGE);
+                for (ScoreDoc hit : page.scoreDocs) {
+                    TaskView task = toTask(searcher.storedFields().document(hit.doc));
+                    if (!task.getCompleted()) {
+                        task.setCompleted(true);
+                        indexWriter.updateDocument(new Term(ID, task.getId().toString()), toDocument(task));
+                    }
+                }
+                if (page.scoreDocs.length < UPDATE_PAGE) {
+                    return;
+                }
+                after = page.scoreDocs[page.scoreDocs.length - 1];
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void commit() {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (IOException | RuntimeException exc) {
+            log.warn("search index commit failed: {}", exc.toString());
+        }
+    }
+
+    private static Document toDocument(TaskView task) {
+        Document document = new Document();
+        document.add(new StringField(ID, task.getId().toString(), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, task.getId()));
+        document.add(new StoredField(TASK_ID, task.getTaskId()));
+        document.add(new TextField(TITLE, task.getTitle(), Field.Store.YES));
+        if (task.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, task.getDescription(), Field.Store.YES));
+        }
+        long createdAt = toNanos(task.getCreatedAt());
+        document.add(new LongPoint(CREATED_AT, createdAt));
+        document.add(new StoredField(CREATED_AT, createdAt));
+        document.add(new StringField(COMPLETED, task.getCompleted().toString(), Field.Store.YES));
+        return document;
+    }
+
+    private static TaskView toTask(Document document) {
+        return new TaskView(
+                Long.valueOf(document.get(ID)),
+                document.get(TASK_ID),
+                document.get(TITLE),
+                document.get(DESCRIPTION),
+                fromNanos(document.getField(CREATED_AT).numericValue().longValue()),
+                Boolean.valueOf(document.get(COMPLETED)));
+    }
+
+    // creation times only need to keep their order, they are read as utc
+    private static long toNanos(LocalDateTime dateTime) {
+        Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private interface IndexChange {
+
+        void run() throws IOException;
+    }
+}
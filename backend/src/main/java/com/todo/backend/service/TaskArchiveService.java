@@ -0,0 +1,14 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dto.ArchivedTask;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface TaskArchiveService {
+
+    ArchivedTask findArchivedTask(Long id);
+
+    ArchivedTask findArchivedTaskByTaskId(String taskId);
+
+    int archiveCompletedTasks() throws InterruptedException;
+}
@@ -0,0 +1,16 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskImportResponse;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public interface TaskImportService {
+
+    TaskImportResponse startImport(TaskFileFormat format, InputStream inputStream) throws IOException;
+
+    TaskImportResponse findImport(String importId);
+}
@@ -0,0 +1,16 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dto.TaskIndexResponse;
+import com.todo.backend.dto.TaskSearchRequest;
+import com.todo.backend.dto.TaskSearchResponse;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+@Service
+public interface TaskSearchService {
+
+    TaskSearchResponse searchTasks(TaskSearchRequest searchRequest) throws IOException;
+
+    TaskIndexResponse rebuildIndex() throws IOException;
+}
@@ -1,17 +1,40 @@
 package com.todo.backend.service;
 
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
 import com.todo.backend.dto.CompleteResponse;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.PageResponse;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
 @Service
 public interface TaskService {
 
     Task createTask(AddTaskDto addTaskDto);
 
-    ListResponse<Task> findRecentTasks();
+    ListResponse<TaskSummary> createTasks(List<AddTaskDto> addTaskDtos);
+
+    ListResponse<TaskView> findRecentTasks();
+
+    PageResponse<TaskSummary> findTasks(TaskPageRequest pageRequest);
+
+    long exportTasks(TaskFileFormat format, OutputStream outputStream) throws IOException;
 
     CompleteResponse completeTask(Long id);
+
+    TaskView findTaskByTaskId(String taskId);
+
+    CompleteResponse completeTaskByTaskId(String taskId);
+
+    BulkCompleteResponse completeTasks(BulkCompleteDto bulkCompleteDto);
 }
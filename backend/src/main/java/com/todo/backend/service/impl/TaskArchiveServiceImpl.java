@@ -0,0 +1,101 @@
+package com.todo.backend.service.impl;
+
+import com.todo.backend.cache.TaskVersion;
+import com.todo.backend.dto.ArchivedTask;
+import com.todo.backend.exception.InvalidTaskRequestException;
+import com.todo.backend.exception.TaskNotFoundException;
+import com.todo.backend.repository.TaskArchiveRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.service.TaskArchiveService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// completed tasks older than min-age leave the task table in batches of batch-size, one short
+// transaction each, with batch-pause in between so the archiver never competes with requests for long
+@Service
+@Timed("task.service")
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskVersion taskVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final Counter archivedTasks;
+
+    public TaskArchiveServiceImpl(TaskArchiveRepository taskArchiveRepository,
+                                  TaskSearchIndex taskSearchIndex,
+                                  TaskVersion taskVersion,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${task.archive.min-age:30d}") Duration minAge,
+                                  @Value("${task.archive.batch-size:500}") int batchSize,
+                                  @Value("${task.archive.batch-pause:200ms}") Duration batchPause) {
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskVersion = taskVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPause.toMillis();
+        this.archivedTasks = Counter.builder("task.archive.archived")
+                .description("Completed tasks moved to task_archive")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ArchivedTask findArchivedTask(Long id) {
+        return taskArchiveRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Archived task " + id + " not found"));
+    }
+
+    @Override
+    public ArchivedTask findArchivedTaskByTaskId(String taskId) {
+
+        if (taskId == null || taskId.isBlank()) {
+            throw new InvalidTaskRequestException("Task id cannot be empty");
+        }
+
+        return taskArchiveRepository.findByTaskId(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Archived task " + taskId + " not found"));
+    }
+
+    // one pass over the tasks old enough at its start, returns the number archived
+    @Override
+    public int archiveCompletedTasks() throws InterruptedException {
+
+        LocalDateTime createdBefore = LocalDateTime.now().minus(minAge);
+        int archived = 0;
+
+        while (true) {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> batch = taskArchiveRepository.findArchivable(createdBefore, batchSize);
+                if (!batch.isEmpty()) {
+                    taskArchiveRepository.moveToArchive(batch, LocalDateTime.now());
+                    taskSearchIndex.tasksArchived(batch);
+                    taskVersion.changed();
+                }
+                return batch;
+            });
+
+            archived += ids.size();
+            archivedTasks.increment(ids.size());
+
+            if (ids.size() < batchSize) {
+                return archived;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+    }
+}
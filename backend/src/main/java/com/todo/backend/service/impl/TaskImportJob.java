@@ -0,0 +1,101 @@
+package com.todo.backend.service.impl;
+
+import com.todo.backend.dto.TaskImportResponse;
+import com.todo.backend.exception.error.BatchItemError;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// state of one running import, updated by the reader and writer threads and read by status requests
+class TaskImportJob {
+
+    enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final int maxReportedErrors;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<BatchItemError> errors = new ArrayList<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    TaskImportJob(String id, int maxReportedErrors) {
+        this.id = id;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    long getImportedCount() {
+        return imported.get();
+    }
+
+    boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    // one rejected record, with every reason it was rejected for
+    void recordRejected(List<BatchItemError> recordErrors) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            for (BatchItemError error : recordErrors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(error);
+                }
+            }
+        }
+    }
+
+    // the first failure wins, later ones are usually caused by it
+    synchronized void fail(String failureMessage) {
+        if (status == Status.RUNNING) {
+            message = failureMessage;
+            finishedAt = LocalDateTime.now();
+            status = Status.FAILED;
+        }
+    }
+
+    synchronized void complete() {
+        if (status == Status.RUNNING) {
+            message = "No of tasks imported : " + imported.get();
+            finishedAt = LocalDateTime.now();
+            status = Status.COMPLETED;
+        }
+    }
+
+    TaskImportResponse toResponse() {
+        TaskImportResponse response = new TaskImportResponse();
+        response.setImportId(id);
+        response.setStatus(status.name());
+        response.setMessage(message == null ? "Import in progress" : message);
+        response.setProcessedCount(processed.get());
+        response.setImportedCount(imported.get());
+        response.setFailedCount(failed.get());
+        response.setStartedAt(startedAt);
+        response.setFinishedAt(finishedAt);
+        synchronized (errors) {
+            response.setErrors(List.copyOf(errors));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,391 @@
+package com.todo.backend.service.impl;
+
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.cache.TaskVersion;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskImportResponse;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.event.TaskEventBroadcaster;
+import com.todo.backend.exception.TaskImportNotFoundException;
+import com.todo.backend.exception.TaskImportTooLargeException;
+import com.todo.backend.exception.error.BatchItemError;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskImportRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.service.TaskImportService;
+import com.todo.backend.util.TaskCsvReader;
+import com.todo.backend.util.TaskIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// imports run in the background: one thread parses and validates the file into batches,
+// writer threads insert them, and the bounded queue between them stops the reader running ahead
+@Service
+@Timed("task.service")
+public class TaskImportServiceImpl implements TaskImportService {
+
+    // finished imports kept for status requests
+    private static final int RETAINED_IMPORTS = 100;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // tells a writer that no more batches follow
+    private static final List<AddTaskDto> END_OF_INPUT = new ArrayList<>();
+
+    private final TaskImportRepository taskImportRepository;
+    private final TaskIdGenerator taskIdGenerator;
+    private final Validator validator;
+    private final RecentTasksCache recentTasksCache;
+    private final TaskVersion taskVersion;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskOutbox taskOutbox;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader recordReader;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writers;
+    private final long maxBytes;
+
+    private final Map<String, TaskImportJob> imports = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("task-import-", 0).daemon(true).factory());
+
+    public TaskImportServiceImpl(TaskImportRepository taskImportRepository,
+                                 TaskIdGenerator taskIdGenerator,
+                                 Validator validator,
+                                 RecentTasksCache recentTasksCache,
+                                 TaskVersion taskVersion,
+                                 TaskEventBroadcaster taskEventBroadcaster,
+                                 TaskOutbox taskOutbox,
+                                 TaskSearchIndex taskSearchIndex,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${task.import.batch-size:1000}") int batchSize,
+                                 @Value("${task.import.queue-capacity:4}") int queueCapacity,
+                                 @Value("${task.import.writers:2}") int writers,
+                                 @Value("${task.import.max-bytes:100MB}") DataSize maxBytes) {
+        this.taskImportRepository = taskImportRepository;
+        this.taskIdGenerator = taskIdGenerator;
+        this.validator = validator;
+        this.recentTasksCache = recentTasksCache;
+        this.taskVersion = taskVersion;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.taskOutbox = taskOutbox;
+        this.taskSearchIndex = taskSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordReader = objectMapper.readerFor(AddTaskDto.class);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.writers = writers;
+        this.maxBytes = maxBytes.toBytes();
+    }
+
+    // the upload is copied to a temporary file first, so the request ends while the import keeps going.
+    // the copy stops at max-bytes, an upload over it is refused before it can fill the disk
+    @Override
+    public TaskImportResponse startImport(TaskFileFormat format, InputStream inputStream) throws IOException {
+
+        Path file = Files.createTempFile("task-import-", "." + format.getFileExtension());
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            copyUpload(inputStream, outputStream);
+        } catch (IOException | RuntimeException exc) {
+            Files.deleteIfExists(file);
+            throw exc;
+        }
+
+        TaskImportJob job = new TaskImportJob(UUID.randomUUID().toString(), MAX_REPORTED_ERRORS);
+        register(job);
+        executor.execute(() -> runImport(job, format, file));
+
+        return job.toResponse();
+    }
+
+    private void copyUpload(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long copied = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            copied += read;
+            if (copied > maxBytes) {
+                throw new TaskImportTooLargeException("Import file cannot be larger than " + maxBytes + " bytes");
+            }
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    @Override
+    public TaskImportResponse findImport(String importId) {
+
+        TaskImportJob job = imports.get(importId);
+        if (job == null) {
+            throw new TaskImportNotFoundException("Import " + importId + " not found");
+        }
+
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runImport(TaskImportJob job, TaskFileFormat format, Path file) {
+
+        BlockingQueue<List<AddTaskDto>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        List<Future<?>> writerTasks = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            writerTasks.add(executor.submit(() -> writeBatches(job, queue)));
+        }
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            BatchProducer producer = new BatchProducer(job, queue);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+            if (format == TaskFileFormat.CSV) {
+                readCsv(reader, producer);
+            } else {
+                readNdjson(reader, producer);
+            }
+            producer.flush();
+        } catch (IOException exc) {
+            job.fail("Import failed: " + exc.getMessage());
+        } catch (InterruptedException exc) {
+            job.fail("Import interrupted");
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException exc) {
+            // fails the job before finish would report the records read so far as a completed import
+            job.fail("Import failed: " + exc.getMessage());
+        } finally {
+            finish(job, queue, writerTasks);
+            // one reload for the whole import instead of an event per batch
+            if (job.getImportedCount() > 0) {
+                taskEventBroadcaster.tasksChanged();
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // the temporary directory is cleaned up by the system
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, BatchProducer producer) throws IOException, InterruptedException {
+        String line;
+        while ((line = reader.readLine()) != null && producer.isRunning()) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            AddTaskDto addTaskDto;
+            try {
+                addTaskDto = recordReader.readValue(line);
+            } catch (JacksonException exc) {
+                producer.reject(null, "Malformed record");
+                continue;
+            }
+
+            if (addTaskDto == null) {
+                producer.reject(null, "Task cannot be empty");
+            } else {
+                producer.add(addTaskDto);
+            }
+        }
+    }
+
+    // the header names the columns, so files written by the csv export can be imported again
+    private void readCsv(BufferedReader reader, BatchProducer producer) throws IOException, InterruptedException {
+        TaskCsvReader csvReader = new TaskCsvReader(reader);
+
+        List<String> header = csvReader.readRecord();
+        int titleColumn = header == null ? -1 : header.indexOf("title");
+        int descriptionColumn = header == null ? -1 : header.indexOf("description");
+        if (titleColumn < 0 || descriptionColumn < 0) {
+            throw new IOException("CSV header must contain title and description");
+        }
+
+        List<String> record;
+        while ((record = csvReader.readRecord()) != null && producer.isRunning()) {
+            if (record.size() == 1 && record.getFirst().isEmpty()) {
+                continue;
+            }
+            if (record.size() != header.size()) {
+                producer.reject(null, "Expected " + header.size() + " columns but found " + record.size());
+                continue;
+            }
+
+            AddTaskDto addTaskDto = new AddTaskDto();
+            addTaskDto.setTitle(record.get(titleColumn));
+            addTaskDto.setDescription(record.get(descriptionColumn));
+            producer.add(addTaskDto);
+        }
+    }
+
+    // writers stop after their end marker, a failed job keeps draining so the reader never blocks
+    private void writeBatches(TaskImportJob job, BlockingQueue<List<AddTaskDto>> queue) {
+        while (true) {
+            List<AddTaskDto> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException exc) {
+                job.fail("Import interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (batch == END_OF_INPUT) {
+                return;
+            }
+            if (!job.isRunning()) {
+                continue;
+            }
+
+            try {
+                insertBatch(batch);
+                job.recordImported(batch.size());
+                recentTasksCache.invalidate();
+                taskVersion.changed();
+            } catch (RuntimeException exc) {
+                job.fail("Import failed: " + exc.getMessage());
+            }
+        }
+    }
+
+    // keys for the whole batch come from one sequence reservation each
+    private void insertBatch(List<AddTaskDto> batch) {
+        long firstKey = taskIdGenerator.reservePrimaryKeys(batch.size());
+        long firstTaskId = taskIdGenerator.reserveTaskIds(batch.size());
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        List<Task> tasks = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            AddTaskDto addTaskDto = batch.get(i);
+            tasks.add(Task.builder()
+                    .id(firstKey + i)
+                    .taskId("TSK " + (firstTaskId + i))
+                    .title(addTaskDto.getTitle())
+                    .description(addTaskDto.getDescription())
+                    .completed(false)
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        List<TaskView> createdTasks = tasks.stream().map(TaskView::from).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            taskImportRepository.insertAll(tasks);
+            taskOutbox.tasksCreated(createdTasks);
+        });
+        taskSearchIndex.tasksCreated(createdTasks);
+    }
+
+    private void finish(TaskImportJob job, BlockingQueue<List<AddTaskDto>> queue, List<Future<?>> writerTasks) {
+        try {
+            for (int i = 0; i < writerTasks.size(); i++) {
+                queue.put(END_OF_INPUT);
+            }
+            for (Future<?> writerTask : writerTasks) {
+                writerTask.get();
+            }
+            job.complete();
+        } catch (InterruptedException exc) {
+            job.fail("Import interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Exception exc) {
+            job.fail("Import failed: " + exc.getMessage());
+        }
+    }
+
+    private void register(TaskImportJob job) {
+        imports.put(job.getId(), job);
+
+        if (imports.size() > RETAINED_IMPORTS) {
+            imports.values().stream()
+                    .filter(existing -> !existing.isRunning())
+                    .min(Comparator.comparing(TaskImportJob::getStartedAt))
+                    .ifPresent(oldest -> imports.remove(oldest.getId()));
+        }
+    }
+
+    // validates records with the AddTaskDto rules and hands full batches to the writers
+    private class BatchProducer {
+
+        private final TaskImportJob job;
+        private final BlockingQueue<List<AddTaskDto>> queue;
+        private List<AddTaskDto> batch = new ArrayList<>(batchSize);
+        private int index;
+
+        BatchProducer(TaskImportJob job, BlockingQueue<List<AddTaskDto>> queue) {
+            this.job = job;
+            this.queue = queue;
+        }
+
+        boolean isRunning() {
+            return job.isRunning();
+        }
+
+        void add(AddTaskDto addTaskDto) throws InterruptedException {
+            int recordIndex = index++;
+            job.recordProcessed();
+
+            Set<ConstraintViolation<AddTaskDto>> violations = validator.validate(addTaskDto);
+            if (!violations.isEmpty()) {
+                job.recordRejected(violations.stream()
+                        .map(violation -> new BatchItemError(recordIndex, violation.getPropertyPath().toString(), violation.getMessage()))
+                        .toList());
+                return;
+            }
+
+            batch.add(addTaskDto);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String field, String message) {
+            job.recordProcessed();
+            job.recordRejected(List.of(new BatchItemError(index++, field, message)));
+        }
+
+        // blocks while the writers are behind
+        void flush() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.todo.backend.service.impl;
+
+import com.todo.backend.dto.TaskIndexResponse;
+import com.todo.backend.dto.TaskSearchRequest;
+import com.todo.backend.dto.TaskSearchResponse;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.exception.InvalidTaskRequestException;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.service.TaskSearchService;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// searches run against TaskSearchIndex only, the task table is read when the index is rebuilt
+@Service
+@Timed("task.service")
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchServiceImpl.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // deeper pages cost more with every page, nobody reads that far down a ranking
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final TaskRepository taskRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean rebuildOnStartup;
+
+    public TaskSearchServiceImpl(TaskRepository taskRepository,
+                                 TaskSearchIndex taskSearchIndex,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${task.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.taskRepository = taskRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @Override
+    public TaskSearchResponse searchTasks(TaskSearchRequest searchRequest) throws IOException {
+
+        if (searchRequest.getQ() == null || searchRequest.getQ().isBlank()) {
+            throw new InvalidTaskRequestException("Search query cannot be empty");
+        }
+
+        int size = searchRequest.getSize() == null ? DEFAULT_PAGE_SIZE : searchRequest.getSize();
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidTaskRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        int page = searchRequest.getPage() == null ? 0 : searchRequest.getPage();
+        if (page < 0 || (long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new InvalidTaskRequestException("Search results are limited to the first " + MAX_RESULT_WINDOW + " hits");
+        }
+
+        // one extra hit tells whether another page follows
+        List<TaskView> tasks = taskSearchIndex.search(searchRequest.getQ(), searchRequest.getCompleted(), page * size, size + 1);
+
+        TaskSearchResponse response = new TaskSearchResponse();
+
+        if (tasks.size() > size) {
+            tasks = tasks.subList(0, size);
+            response.setNextPage(page + 1);
+        }
+
+        response.setEntityList(tasks);
+
+        if (tasks.isEmpty()) {
+            response.setMessage("No tasks found");
+        } else {
+            response.setMessage("No of tasks found : " + tasks.size());
+        }
+
+        return response;
+    }
+
+    // reads every task over the export cursor, writes keep updating the index meanwhile
+    @Override
+    public TaskIndexResponse rebuildIndex() throws IOException {
+
+        long count;
+        try {
+            count = readOnlyTransaction.execute(status -> {
+                try {
+                    return taskSearchIndex.rebuild(taskRepository::streamAll);
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        } catch (UncheckedIOException exc) {
+            throw exc.getCause();
+        }
+
+        TaskIndexResponse response = new TaskIndexResponse();
+        response.setIndexedCount(count);
+        response.setMessage("No of tasks indexed : " + count);
+
+        return response;
+    }
+
+    // an in memory index starts empty, it is filled in the background while searches already run
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildEmptyIndex() {
+        if (rebuildOnStartup && taskSearchIndex.size() == 0) {
+            Thread.ofPlatform().name("task-search-rebuild").daemon(true).start(() -> {
+                try {
+                    log.info("search index rebuilt, {}", rebuildIndex().getMessage());
+                } catch (IOException | RuntimeException exc) {
+                    log.warn("search index rebuild failed: {}", exc.toString());
+                }
+            });
+        }
+    }
+}
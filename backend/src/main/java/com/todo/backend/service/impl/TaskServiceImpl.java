@@ -1,50 +1,258 @@
 package com.todo.backend.service.impl;
 
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.cache.TaskIdCache;
+import com.todo.backend.cache.TaskVersion;
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.ArchivedTask;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
 import com.todo.backend.dto.CompleteResponse;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.PageResponse;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import com.todo.backend.event.TaskEventBroadcaster;
+import com.todo.backend.exception.InvalidTaskBatchException;
+import com.todo.backend.exception.InvalidTaskRequestException;
 import com.todo.backend.exception.TaskNotFoundException;
+import com.todo.backend.exception.error.BatchItemError;
+import com.todo.backend.jdbc.ReplicaRouting;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskArchiveRepository;
 import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.search.TaskSearchIndex;
 import com.todo.backend.service.TaskService;
+import com.todo.backend.util.TaskCsv;
+import com.todo.backend.util.TaskCursor;
 import com.todo.backend.util.TaskIdGenerator;
+import com.todo.backend.writebehind.TaskWriteBehind;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Timed("task.service")
 public class TaskServiceImpl implements TaskService {
 
+    // keeps IN lists within what every database accepts
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // same limit as the findRecentTasks query
+    private static final int RECENT_TASKS = 5;
+
     private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
     private final TaskIdGenerator taskIdGenerator;
+    private final Validator validator;
+    private final RecentTasksCache recentTasksCache;
+    private final TaskIdCache taskIdCache;
+    private final TaskVersion taskVersion;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskOutbox taskOutbox;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskWriteBehind taskWriteBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter exportRowWriter;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskIdGenerator taskIdGenerator) {
+    public TaskServiceImpl(TaskRepository taskRepository,
+                           TaskArchiveRepository taskArchiveRepository,
+                           TaskIdGenerator taskIdGenerator,
+                           Validator validator,
+                           RecentTasksCache recentTasksCache,
+                           TaskIdCache taskIdCache,
+                           TaskVersion taskVersion,
+                           TaskEventBroadcaster taskEventBroadcaster,
+                           TaskOutbox taskOutbox,
+                           TaskSearchIndex taskSearchIndex,
+                           TaskWriteBehind taskWriteBehind,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper) {
         this.taskRepository = taskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
         this.taskIdGenerator = taskIdGenerator;
+        this.validator = validator;
+        this.recentTasksCache = recentTasksCache;
+        this.taskIdCache = taskIdCache;
+        this.taskVersion = taskVersion;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.taskOutbox = taskOutbox;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskWriteBehind = taskWriteBehind;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // rows go to a shared buffered writer, so a row must neither close nor flush it
+        this.exportRowWriter = objectMapper.writerFor(TaskView.class)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .without(StreamWriteFeature.FLUSH_PASSED_TO_STREAM);
     }
 
+    // the task and its outbox event are written together, after the key is taken.
+    // with write-behind on, the task is journaled instead and inserted by the flusher
     @Override
     public Task createTask(AddTaskDto addTaskDto) {
 
-        Task task = Task.builder()
-                .title(addTaskDto.getTitle())
-                .description(addTaskDto.getDescription())
-                .completed(false)
-                .createdAt(LocalDateTime.now())
-                .taskId(taskIdGenerator.generate())
-                .build();
+        Task task = buildTask(addTaskDto);
+        Task savedTask = taskWriteBehind.offer(task) ? task : transactionTemplate.execute(status -> {
+            Task saved = taskRepository.save(task);
+            taskOutbox.tasksCreated(List.of(TaskView.from(saved)));
+            return saved;
+        });
+        TaskView createdTask = TaskView.from(savedTask);
+        taskIdCache.put(savedTask.getTaskId(), savedTask.getId());
+        recentTasksCache.taskCreated(createdTask);
+        taskVersion.changed();
+        taskEventBroadcaster.tasksCreated(List.of(createdTask));
+        taskSearchIndex.tasksCreated(List.of(createdTask));
+
+        return savedTask;
+    }
+
+    // create all tasks in one transaction, inserts are sent as jdbc batches. the keys for the whole batch
+    // are reserved before the transaction holds a connection, a block refill takes a connection of its own
+    @Override
+    public ListResponse<TaskSummary> createTasks(List<AddTaskDto> addTaskDtos) {
+
+        if (addTaskDtos == null || addTaskDtos.isEmpty()) {
+            throw new InvalidTaskBatchException("Task list cannot be empty", List.of());
+        }
+
+        List<BatchItemError> errors = validateBatch(addTaskDtos);
+        if (!errors.isEmpty()) {
+            throw new InvalidTaskBatchException("No of invalid tasks : " + errors.size(), errors);
+        }
+
+        long firstKey = taskIdGenerator.reservePrimaryKeys(addTaskDtos.size());
+        long firstTaskId = taskIdGenerator.reserveTaskIds(addTaskDtos.size());
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        List<Task> tasks = new ArrayList<>(addTaskDtos.size());
+        for (int i = 0; i < addTaskDtos.size(); i++) {
+            AddTaskDto addTaskDto = addTaskDtos.get(i);
+            tasks.add(Task.builder()
+                    .id(firstKey + i)
+                    .taskId("TSK " + (firstTaskId + i))
+                    .title(addTaskDto.getTitle())
+                    .description(addTaskDto.getDescription())
+                    .completed(false)
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        List<Task> savedTasks = transactionTemplate.execute(status -> {
+            List<Task> saved = taskRepository.saveAll(tasks);
+            taskOutbox.tasksCreated(saved.stream().map(TaskView::from).toList());
+            return saved;
+        });
+        List<TaskView> createdTasks = savedTasks.stream().map(TaskView::from).toList();
+        recentTasksCache.tasksCreated(createdTasks);
+        taskVersion.changed();
+        taskEventBroadcaster.tasksCreated(createdTasks);
+        taskSearchIndex.tasksCreated(createdTasks);
+
+        ListResponse<TaskSummary> response = new ListResponse<>();
+        response.setEntityList(savedTasks.stream().map(TaskSummary::from).toList());
+        response.setMessage("No of tasks created : " + tasks.size());
+
+        return response;
+    }
+
+    // find recent five tasks, served from the cache while it is fresh
+    @Override
+    public ListResponse<TaskView> findRecentTasks() {
+
+        // buffered tasks are taken first, one flushed in between is then found by the read below
+        List<TaskView> bufferedTasks = taskWriteBehind.recentPending(RECENT_TASKS);
+
+        // a client pinned to the primary may have written through another instance, which the cache
+        // does not see, so it skips the cache. the cache itself is only filled from the primary
+        Optional<List<TaskView>> cachedTasks = ReplicaRouting.isPinnedToPrimary() ? Optional.empty() : recentTasksCache.get();
+        List<TaskView> tasks = cachedTasks.orElseGet(() -> {
+            if (!recentTasksCache.isEnabled()) {
+                return taskRepository.findRecentTasks();
+            }
+            long generation = recentTasksCache.generation();
+            List<TaskView> loadedTasks = ReplicaRouting.onPrimary(taskRepository::findRecentTasks);
+            recentTasksCache.load(generation, loadedTasks);
+            return loadedTasks;
+        });
+
+        if (!bufferedTasks.isEmpty()) {
+            tasks = mergeRecent(bufferedTasks, tasks);
+        }
+
+        ListResponse<TaskView> response = new ListResponse<>();
+        response.setEntityList(tasks);
+
+        if (tasks.isEmpty()) {
+            response.setMessage("No tasks found");
+        } else {
+            response.setMessage("No of tasks found : " + tasks.size());
+        }
 
-        return taskRepository.save(task);
+        return response;
     }
 
-    // find recent five tasks
+    // page through tasks newest first, the cursor carries the last id of the previous page
     @Override
-    public ListResponse<Task> findRecentTasks() {
+    public PageResponse<TaskSummary> findTasks(TaskPageRequest pageRequest) {
+
+        int size = pageRequest.getSize() == null ? DEFAULT_PAGE_SIZE : pageRequest.getSize();
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidTaskRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
 
-        List<Task> tasks = taskRepository.findRecentTasks();
+        Long afterId = pageRequest.getCursor() == null ? null : TaskCursor.decode(pageRequest.getCursor());
+
+        // one extra row tells whether another page follows
+        List<TaskSummary> tasks = taskRepository.findPage(
+                afterId,
+                pageRequest.getCompleted(),
+                pageRequest.getCreatedFrom(),
+                pageRequest.getCreatedTo(),
+                Limit.of(size + 1));
+
+        PageResponse<TaskSummary> response = new PageResponse<>();
+
+        if (tasks.size() > size) {
+            tasks = tasks.subList(0, size);
+            response.setNextCursor(TaskCursor.encode(tasks.get(size - 1).getId()));
+        }
 
-        ListResponse<Task> response = new ListResponse<>();
         response.setEntityList(tasks);
 
         if (tasks.isEmpty()) {
@@ -56,19 +264,240 @@ public class TaskServiceImpl implements TaskService {
         return response;
     }
 
+    // write every task to the stream while it is read from the cursor, returns the number of rows written
     @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(TaskFileFormat format, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        long count = 0;
+
+        if (format == TaskFileFormat.CSV) {
+            TaskCsv.writeHeader(writer);
+        }
+
+        try (Stream<TaskView> tasks = taskRepository.streamAll()) {
+            Iterator<TaskView> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                TaskView task = iterator.next();
+                if (format == TaskFileFormat.CSV) {
+                    TaskCsv.writeRow(writer, task);
+                } else {
+                    exportRowWriter.writeValue(writer, task);
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+
+        writer.flush();
+
+        return count;
+    }
+
+    // one conditional update, the row is only looked up when nothing was updated
+    @Override
+    @Transactional
     public CompleteResponse completeTask(Long id) {
 
-        Task existingTask = taskRepository.findById(id)
-                .orElseThrow(() -> new TaskNotFoundException("Task " + id + " not found"));
+        CompleteResponse response = complete(id);
+        if (response == null) {
+            throw new TaskNotFoundException("Task " + id + " not found");
+        }
 
-        existingTask.setCompleted(true);
-        Task updatedTask = taskRepository.save(existingTask);
+        return response;
+    }
+
+    // one task by its business id
+    @Override
+    public TaskView findTaskByTaskId(String taskId) {
+
+        requireTaskId(taskId);
+
+        // a task created here may still be buffered by the write-behind
+        Long cachedId = taskIdCache.get(taskId);
+        if (cachedId != null) {
+            taskWriteBehind.flushIfPending(List.of(cachedId));
+        }
+
+        TaskView task = taskRepository.findViewByTaskId(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Task " + taskId + " not found"));
+        taskIdCache.put(taskId, task.getId());
+
+        return task;
+    }
+
+    // the id comes from the cache, a cached id whose row is gone is resolved again
+    @Override
+    @Transactional
+    public CompleteResponse completeTaskByTaskId(String taskId) {
+
+        requireTaskId(taskId);
+
+        Long id = taskIdCache.get(taskId);
+        CompleteResponse response = id == null ? null : complete(id);
+
+        if (response == null) {
+            taskIdCache.evict(taskId);
+            id = taskRepository.findIdByTaskId(taskId)
+                    .or(() -> taskArchiveRepository.findByTaskId(taskId).map(ArchivedTask::getId))
+                    .orElseThrow(() -> new TaskNotFoundException("Task " + taskId + " not found"));
+
+            response = complete(id);
+            if (response == null) {
+                throw new TaskNotFoundException("Task " + taskId + " not found");
+            }
+            taskIdCache.put(taskId, id);
+        }
+
+        return response;
+    }
+
+    // complete by ids or by creation date with set based updates, no entity is loaded
+    @Override
+    @Transactional
+    public BulkCompleteResponse completeTasks(BulkCompleteDto bulkCompleteDto) {
+
+        boolean hasIds = bulkCompleteDto.getIds() != null && !bulkCompleteDto.getIds().isEmpty();
+        boolean hasCutOff = bulkCompleteDto.getCreatedBefore() != null;
+
+        if (hasIds == hasCutOff) {
+            throw new InvalidTaskBatchException("Provide either ids or createdBefore", List.of());
+        }
+
+        BulkCompleteResponse response = new BulkCompleteResponse();
+
+        if (hasCutOff) {
+            taskWriteBehind.flushPending();
+            taskOutbox.tasksCompletingBefore(bulkCompleteDto.getCreatedBefore());
+            response.setUpdatedCount(taskRepository.completeTasksCreatedBefore(bulkCompleteDto.getCreatedBefore()));
+            recentTasksCache.invalidate();
+            taskVersion.changed();
+            taskEventBroadcaster.tasksChanged();
+            taskSearchIndex.tasksCompletedBefore(bulkCompleteDto.getCreatedBefore());
+        } else {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bulkCompleteDto.getIds()));
+            Set<Long> existingIds = new HashSet<>();
+            List<Long> completedIds = new ArrayList<>();
+            taskWriteBehind.flushIfPending(ids);
+
+            // the open ids are locked first, so listeners hear of exactly the tasks completed here
+            // and not of the ones completed before or by a concurrent request
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_CHUNK));
+                List<Long> openIds = taskRepository.findOpenIdsForUpdate(chunk);
+                existingIds.addAll(openIds.size() == chunk.size() ? chunk : taskRepository.findExistingIds(chunk));
+                if (!openIds.isEmpty()) {
+                    taskOutbox.tasksCompleting(openIds);
+                    taskRepository.completeTasks(openIds);
+                    completedIds.addAll(openIds);
+                }
+            }
+
+            if (!completedIds.isEmpty()) {
+                recentTasksCache.tasksCompleted(completedIds);
+                taskVersion.changed();
+                taskEventBroadcaster.tasksCompleted(completedIds);
+                taskSearchIndex.tasksCompleted(completedIds);
+            }
+
+            // archived tasks were completed before, they are not missing
+            List<Long> missingIds = ids.stream().filter(id -> !existingIds.contains(id)).toList();
+            if (!missingIds.isEmpty()) {
+                Set<Long> archivedIds = new HashSet<>();
+                for (int from = 0; from < missingIds.size(); from += IN_CLAUSE_CHUNK) {
+                    archivedIds.addAll(taskArchiveRepository.findArchivedIds(
+                            missingIds.subList(from, Math.min(missingIds.size(), from + IN_CLAUSE_CHUNK))));
+                }
+                missingIds = missingIds.stream().filter(id -> !archivedIds.contains(id)).toList();
+            }
+
+            response.setUpdatedCount(completedIds.size());
+            response.setMissingIds(missingIds);
+        }
+
+        response.setMessage("No of tasks completed : " + response.getUpdatedCount());
+
+        return response;
+    }
+
+    // completes one open task, null when there is no such task, archived ones count as completed
+    private CompleteResponse complete(long id) {
 
         CompleteResponse response = new CompleteResponse();
-        response.setMessage("Task has been completed");
-        response.setTask(updatedTask);
+        response.setId(id);
+        taskWriteBehind.flushIfPending(List.of(id));
+
+        if (taskRepository.completeTask(id) == 1) {
+            taskOutbox.taskCompleted(id);
+            recentTasksCache.tasksCompleted(List.of(id));
+            taskVersion.changed();
+            taskEventBroadcaster.tasksCompleted(List.of(id));
+            taskSearchIndex.tasksCompleted(List.of(id));
+            response.setCompletedNow(true);
+            response.setMessage("Task has been completed");
+        } else if (taskRepository.existsById(id) || !taskArchiveRepository.findArchivedIds(List.of(id)).isEmpty()) {
+            response.setMessage("Task was already completed");
+        } else {
+            return null;
+        }
 
         return response;
     }
+
+    private static void requireTaskId(String taskId) {
+        if (taskId == null || taskId.isBlank()) {
+            throw new InvalidTaskRequestException("Task id cannot be empty");
+        }
+    }
+
+    // buffered and stored tasks newest first, a task may be in both while it is flushed
+    private static List<TaskView> mergeRecent(List<TaskView> bufferedTasks, List<TaskView> storedTasks) {
+        Map<Long, TaskView> tasks = new LinkedHashMap<>();
+        for (TaskView task : storedTasks) {
+            tasks.put(task.getId(), task);
+        }
+        for (TaskView task : bufferedTasks) {
+            tasks.putIfAbsent(task.getId(), task);
+        }
+
+        return tasks.values().stream()
+                .filter(task -> !Boolean.TRUE.equals(task.getCompleted()))
+                .sorted(Comparator.comparing(TaskView::getId).reversed())
+                .limit(RECENT_TASKS)
+                .toList();
+    }
+
+    // keys are taken here, before the insert transaction holds a connection
+    private Task buildTask(AddTaskDto addTaskDto) {
+        return Task.builder()
+                .id(taskIdGenerator.nextPrimaryKey())
+                .title(addTaskDto.getTitle())
+                .description(addTaskDto.getDescription())
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .taskId(taskIdGenerator.generate())
+                .build();
+    }
+
+    // same rules as @Valid on a single task, collected for every item instead of failing on the first
+    private List<BatchItemError> validateBatch(List<AddTaskDto> addTaskDtos) {
+
+        List<BatchItemError> errors = new ArrayList<>();
+
+        for (int i = 0; i < addTaskDtos.size(); i++) {
+            AddTaskDto addTaskDto = addTaskDtos.get(i);
+
+            if (addTaskDto == null) {
+                errors.add(new BatchItemError(i, null, "Task cannot be empty"));
+                continue;
+            }
+
+            for (ConstraintViolation<AddTaskDto> violation : validator.validate(addTaskDto)) {
+                errors.add(new BatchItemError(i, violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+        }
+
+        return errors;
+    }
 }
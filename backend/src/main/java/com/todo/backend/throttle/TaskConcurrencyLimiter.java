@@ -0,0 +1,139 @@
+package com.todo.backend.throttle;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// adaptive limit on requests in flight. request latency is mostly database time and waits for a pooled
+// connection, so it is compared per sample window with its long-term average: once it rises above
+// tolerance times the average the limit shrinks in proportion, while it stays close the limit grows
+// by its square root. requests over the limit are shed instead of queueing on the pool
+@Component
+public class TaskConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_TERM_WEIGHT = 0.05;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int windowMinSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // current sample window, closed by whichever release gets the lock once it is due
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private volatile long windowStart = System.nanoTime();
+    private double longTermLatencyNanos;
+
+    public TaskConcurrencyLimiter(MeterRegistry meterRegistry,
+                                  @Value("${task.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${task.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${task.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${task.concurrency-limit.max-limit:200}") int maxLimit,
+                                  @Value("${task.concurrency-limit.tolerance:1.5}") double tolerance,
+                                  @Value("${task.concurrency-limit.window:100ms}") Duration window,
+                                  @Value("${task.concurrency-limit.window-min-samples:10}") int windowMinSamples) {
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+        this.windowMinSamples = windowMinSamples;
+
+        Gauge.builder("task.concurrency.limit", this, TaskConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("task.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    // latencyNanos below 0 releases without a sample, for requests that went async
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            sample(latencyNanos, System.nanoTime());
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void sample(long latencyNanos, long now) {
+        windowLatencyNanos.add(latencyNanos);
+        windowSamples.increment();
+
+        if (now - windowStart < windowNanos || windowSamples.sum() < windowMinSamples || !windowLock.tryLock()) {
+            return;
+        }
+        try {
+            long samples = windowSamples.sumThenReset();
+            long latency = windowLatencyNanos.sumThenReset();
+            int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+            windowStart = now;
+            if (samples > 0) {
+                update((double) latency / samples, maxInFlight);
+            }
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void update(double shortTermLatencyNanos, int maxInFlight) {
+        if (longTermLatencyNanos == 0) {
+            longTermLatencyNanos = shortTermLatencyNanos;
+        } else {
+            longTermLatencyNanos = longTermLatencyNanos * (1 - LONG_TERM_WEIGHT) + shortTermLatencyNanos * LONG_TERM_WEIGHT;
+        }
+        // after a long slow spell the average lags behind a recovered database, let it catch up faster
+        if (longTermLatencyNanos > 2 * shortTermLatencyNanos) {
+            longTermLatencyNanos *= 0.9;
+        }
+
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longTermLatencyNanos / shortTermLatencyNanos));
+        // a limit the traffic did not come close to says nothing about the database, do not grow it
+        if (gradient == 1.0 && maxInFlight < current / 2) {
+            return;
+        }
+
+        double next = gradient < 1.0 ? current * gradient : current + Math.sqrt(current);
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,111 @@
+package com.todo.backend.throttle;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// per client token buckets, one per endpoint the client calls. task creation, other writes and reads
+// each have their own rate (tokens per second) and burst (bucket size).
+// a bucket is a single long, the time it is full again (gcra), so taking a token is one compare-and-set
+@Component
+public class TaskRateLimiter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final boolean enabled;
+    private final Limit create;
+    private final Limit write;
+    private final Limit read;
+    private final int maxBuckets;
+
+    private final ConcurrentHashMap<BucketKey, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public TaskRateLimiter(@Value("${task.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${task.rate-limit.create.rate:20}") double createRate,
+                           @Value("${task.rate-limit.create.burst:40}") int createBurst,
+                           @Value("${task.rate-limit.write.rate:20}") double writeRate,
+                           @Value("${task.rate-limit.write.burst:40}") int writeBurst,
+                           @Value("${task.rate-limit.read.rate:100}") double readRate,
+                           @Value("${task.rate-limit.read.burst:200}") int readBurst,
+                           @Value("${task.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.enabled = enabled;
+        this.create = new Limit(createRate, createBurst);
+        this.write = new Limit(writeRate, writeBurst);
+        this.read = new Limit(readRate, readBurst);
+        this.maxBuckets = maxBuckets;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // takes a token from the client's bucket for the endpoint, returns 0 if there was one
+    // or the nanos until the next token otherwise
+    public long tryAcquire(String client, String method, String endpoint) {
+        return tryAcquire(client, method, endpoint, System.nanoTime());
+    }
+
+    long tryAcquire(String client, String method, String endpoint, long now) {
+
+        Limit limit = limitFor(method, endpoint);
+        AtomicLong bucket = buckets.get(new BucketKey(client, method, endpoint));
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                sweep(now);
+            }
+            bucket = buckets.computeIfAbsent(new BucketKey(client, method, endpoint), key -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + limit.intervalNanos();
+            long wait = next - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    private Limit limitFor(String method, String endpoint) {
+        if (SAFE_METHODS.contains(method)) {
+            return read;
+        }
+        return "POST".equals(method) && "/api/tasks".equals(endpoint) ? create : write;
+    }
+
+    // a full bucket is the same as no bucket, dropping them keeps the map bounded by the active clients
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private record BucketKey(String client, String method, String endpoint) {
+    }
+
+    // a token every intervalNanos, a bucket holding burst tokens lets that many through back to back
+    private record Limit(long intervalNanos, long toleranceNanos) {
+
+        Limit(double rate, int burst) {
+            this((long) (TimeUnit.SECONDS.toNanos(1) / rate), (long) (TimeUnit.SECONDS.toNanos(1) / rate) * burst);
+        }
+    }
+}
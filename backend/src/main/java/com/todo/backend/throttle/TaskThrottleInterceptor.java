@@ -0,0 +1,101 @@
+package com.todo.backend.throttle;
+
+import com.todo.backend.exception.TaskOverloadedException;
+import com.todo.backend.exception.TaskRateLimitException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+// rate limits and load shedding in front of the task endpoints. the rate limit comes first so a client
+// over its limit never takes a slot of the concurrency limit. errors go through TaskExceptionHandler.
+// clients are told apart by client-header when set, by remote address otherwise
+@Component
+public class TaskThrottleInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private static final String STARTED_ATTRIBUTE = TaskThrottleInterceptor.class.getName() + ".started";
+
+    private final TaskRateLimiter rateLimiter;
+    private final TaskConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+
+    public TaskThrottleInterceptor(TaskRateLimiter rateLimiter,
+                                   TaskConcurrencyLimiter concurrencyLimiter,
+                                   @Value("${task.rate-limit.client-header:}") String clientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        // the dispatch that writes an async result was already let through
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        if (rateLimiter.isEnabled()) {
+            String endpoint = endpoint(request);
+            long waitNanos = rateLimiter.tryAcquire(client(request), request.getMethod(), endpoint);
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                throw new TaskRateLimitException("Rate limit exceeded for " + request.getMethod() + " " + endpoint
+                        + ", retry in " + retryAfter + "s", retryAfter);
+            }
+        }
+
+        if (concurrencyLimiter.isEnabled()) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                throw new TaskOverloadedException("Too many requests in progress, retry later", 1);
+            }
+            request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started) {
+            request.removeAttribute(STARTED_ATTRIBUTE);
+            concurrencyLimiter.release(System.nanoTime() - started);
+        }
+    }
+
+    // streams and exports hold the slot only until their handler returns, their latency is not a sample
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STARTED_ATTRIBUTE) != null) {
+            request.removeAttribute(STARTED_ATTRIBUTE);
+            concurrencyLimiter.release(-1);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        if (!clientHeader.isEmpty()) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // the mapped pattern, so /api/tasks/1/complete and /api/tasks/2/complete share a bucket
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
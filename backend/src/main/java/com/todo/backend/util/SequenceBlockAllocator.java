@@ -0,0 +1,101 @@
+package com.todo.backend.util;
+
+import com.todo.backend.entity.TaskSequence;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.repository.TaskSequenceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// hands out values from blocks reserved in one row of the task_sequence table,
+// so only one query per block hits the database instead of one per value
+class SequenceBlockAllocator {
+
+    private final String name;
+    private final long blockSize;
+    private final TaskRepository taskRepository;
+    private final TaskSequenceRepository taskSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile IdBlock block = new IdBlock(0, 0);
+
+    SequenceBlockAllocator(String name,
+                           long blockSize,
+                           TaskRepository taskRepository,
+                           TaskSequenceRepository taskSequenceRepository,
+                           TransactionTemplate transactionTemplate) {
+        this.name = name;
+        this.blockSize = blockSize;
+        this.taskRepository = taskRepository;
+        this.taskSequenceRepository = taskSequenceRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    long nextValue() {
+        while (true) {
+            IdBlock current = block;
+            long value = current.next().getAndIncrement();
+            if (value < current.limit()) {
+                return value;
+            }
+
+            // block exhausted, only one thread reserves the next one
+            synchronized (this) {
+                if (block == current) {
+                    block = reserveBlock(blockSize);
+                }
+            }
+        }
+    }
+
+    // first of size consecutive values, reserved straight from the table for bulk writers
+    long nextValues(long size) {
+        return reserveBlock(size).next().get();
+    }
+
+    // reserve [nextVal, nextVal + size) in its own transaction so the row lock is held briefly
+    private IdBlock reserveBlock(long size) {
+        while (true) {
+            Long end = transactionTemplate.execute(status -> {
+                if (taskSequenceRepository.reserveBlock(name, size) == 0) {
+                    return null;
+                }
+                return taskSequenceRepository.findById(name)
+                        .map(TaskSequence::getNextVal)
+                        .orElseThrow();
+            });
+
+            if (end != null) {
+                return new IdBlock(end - size, end);
+            }
+
+            IdBlock initialBlock = initializeSequence(size);
+            if (initialBlock != null) {
+                return initialBlock;
+            }
+        }
+    }
+
+    // first start on this database, seed the sequence after the highest existing task
+    private IdBlock initializeSequence(long size) {
+        try {
+            return transactionTemplate.execute(status -> {
+                long start = taskRepository.findMaxId().orElse(0L) + 1;
+
+                taskSequenceRepository.createSequence(name, start + size);
+                return new IdBlock(start, start + size);
+            });
+        } catch (DataIntegrityViolationException exc) {
+            // another instance created the row first, reserve from it instead
+            return null;
+        }
+    }
+
+    private record IdBlock(AtomicLong next, long limit) {
+
+        IdBlock(long start, long limit) {
+            this(new AtomicLong(start), limit);
+        }
+    }
+}
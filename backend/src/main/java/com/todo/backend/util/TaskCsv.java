@@ -0,0 +1,56 @@
+package com.todo.backend.util;
+
+import com.todo.backend.dto.TaskView;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// csv layout of a task, fields are quoted only when they contain a separator, quote or line break
+public final class TaskCsv {
+
+    public static final String HEADER = "id,taskId,title,description,createdAt,completed";
+
+    private TaskCsv() {
+    }
+
+    public static void writeHeader(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    public static void writeRow(Writer writer, TaskView task) throws IOException {
+        writer.write(String.valueOf(task.getId()));
+        writer.write(',');
+        writeField(writer, task.getTaskId());
+        writer.write(',');
+        writeField(writer, task.getTitle());
+        writer.write(',');
+        writeField(writer, task.getDescription());
+        writer.write(',');
+        writeField(writer, task.getCreatedAt() == null ? null : task.getCreatedAt().toString());
+        writer.write(',');
+        writeField(writer, task.getCompleted() == null ? null : task.getCompleted().toString());
+        writer.write('\n');
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
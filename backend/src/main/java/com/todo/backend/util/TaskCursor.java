@@ -0,0 +1,32 @@
+package com.todo.backend.util;
+
+import com.todo.backend.exception.InvalidTaskRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// opaque page cursor, wraps the id of the last task on the previous page
+public final class TaskCursor {
+
+    private static final String PREFIX = "id:";
+
+    private TaskCursor() {
+    }
+
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidTaskRequestException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException exc) {
+            throw new InvalidTaskRequestException("Invalid cursor");
+        }
+    }
+}
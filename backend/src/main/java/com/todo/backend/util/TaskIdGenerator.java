@@ -1,23 +1,56 @@
 package com.todo.backend.util;
 
 import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.repository.TaskSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+// allocates the business task id ("TSK n") and the task primary key from separate sequences
 @Component
 public class TaskIdGenerator {
 
-    private final TaskRepository taskRepository;
+    static final String TASK_ID_SEQUENCE = "task";
+    static final String PRIMARY_KEY_SEQUENCE = "task_pk";
+    private static final String PREFIX = "TSK ";
 
-    public TaskIdGenerator(TaskRepository taskRepository) {
-        this.taskRepository = taskRepository;
+    private final SequenceBlockAllocator taskIds;
+    private final SequenceBlockAllocator primaryKeys;
+
+    public TaskIdGenerator(TaskRepository taskRepository,
+                           TaskSequenceRepository taskSequenceRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${task.id.block-size:100}") long blockSize) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.taskIds = new SequenceBlockAllocator(TASK_ID_SEQUENCE, blockSize,
+                taskRepository, taskSequenceRepository, transactionTemplate);
+        this.primaryKeys = new SequenceBlockAllocator(PRIMARY_KEY_SEQUENCE, blockSize,
+                taskRepository, taskSequenceRepository, transactionTemplate);
     }
 
     public String generate() {
-        Long lastId = taskRepository.findTopByOrderByIdDesc()
-                .map(task -> task.getId())
-                .orElse(0L);
+        return PREFIX + nextValue();
+    }
+
+    public long nextValue() {
+        return taskIds.nextValue();
+    }
+
+    public long nextPrimaryKey() {
+        return primaryKeys.nextValue();
+    }
+
+    // first of count consecutive task id numbers, one round trip however large count is
+    public long reserveTaskIds(int count) {
+        return taskIds.nextValues(count);
+    }
 
-        Long nextId = lastId + 1;
-        return "TSK " + nextId;
+    // first of count consecutive primary keys
+    public long reservePrimaryKeys(int count) {
+        return primaryKeys.nextValues(count);
     }
 }
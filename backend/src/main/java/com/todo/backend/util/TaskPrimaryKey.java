@@ -0,0 +1,16 @@
+package com.todo.backend.util;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// task primary keys come from the task_sequence table instead of an identity column,
+// which lets Hibernate batch inserts
+@IdGeneratorType(TaskPrimaryKeyGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TaskPrimaryKey {
+}
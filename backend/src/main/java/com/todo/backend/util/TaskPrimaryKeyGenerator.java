@@ -0,0 +1,73 @@
+package com.todo.backend.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.internal.FallbackBeanInstanceProducer;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+// keeps primary keys assigned by TaskServiceImpl, which takes them before the transaction opens.
+// tasks saved straight through the repository get a key here, inside the transaction,
+// so a block refill needs a second pooled connection on that path
+public class TaskPrimaryKeyGenerator implements BeforeExecutionGenerator {
+
+    // autowired instance owned by Hibernate, so it also works in slices without the component scan
+    private static final BeanContainer.LifecycleOptions AUTOWIRED_BEAN = new BeanContainer.LifecycleOptions() {
+        @Override
+        public boolean canUseCachedReferences() {
+            return true;
+        }
+
+        @Override
+        public boolean useJpaCompliantCreation() {
+            return true;
+        }
+    };
+
+    private final transient ManagedBeanRegistry beanRegistry;
+    private transient volatile TaskIdGenerator taskIdGenerator;
+
+    public TaskPrimaryKeyGenerator(TaskPrimaryKey config, Member member, GeneratorCreationContext context) {
+        this.beanRegistry = context.getServiceRegistry().requireService(ManagedBeanRegistry.class);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (currentValue != null) {
+            return currentValue;
+        }
+        return taskIdGenerator().nextPrimaryKey();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    // resolved on first use, the generator depends on repositories that need the finished EntityManagerFactory
+    private TaskIdGenerator taskIdGenerator() {
+        TaskIdGenerator generator = taskIdGenerator;
+        if (generator == null) {
+            BeanContainer beanContainer = beanRegistry.getBeanContainer();
+            if (beanContainer == null) {
+                throw new IllegalStateException("Task primary keys require a Spring managed EntityManagerFactory");
+            }
+
+            generator = beanContainer.getBean(TaskIdGenerator.class, AUTOWIRED_BEAN, FallbackBeanInstanceProducer.INSTANCE)
+                    .getBeanInstance();
+            taskIdGenerator = generator;
+        }
+        return generator;
+    }
+}
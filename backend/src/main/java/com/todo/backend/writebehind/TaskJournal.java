@@ -0,0 +1,182 @@
+package com.todo.backend.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// append only journal in a memory mapped file.
+// header: magic, epoch and the position up to which records reached the database.
+// record: payload length, epoch, crc32c of epoch and payload, payload.
+// once every record is flushed the journal starts over at the header with the next epoch, records
+// left over from an older epoch, a torn record or a zero length end the scan when the file is opened
+final class TaskJournal implements Closeable {
+
+    private static final int MAGIC = 0x544a524e;
+    private static final int HEADER_SIZE = 64;
+    private static final int EPOCH_OFFSET = 4;
+    private static final int FLUSHED_OFFSET = 8;
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // guarded by this
+    private int epoch;
+    private int writePosition;
+    private int flushedPosition;
+
+    // guarded by syncLock
+    private final Object syncLock = new Object();
+    private int durablePosition;
+
+    private final List<Entry> unflushed = new ArrayList<>();
+
+    record Entry(byte[] payload, int endPosition) {
+    }
+
+    private TaskJournal(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    static TaskJournal open(Path file, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        TaskJournal journal = new TaskJournal(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+        journal.recover();
+        return journal;
+    }
+
+    // records written but not flushed before the journal was last closed, oldest first
+    List<Entry> unflushed() {
+        return unflushed;
+    }
+
+    // returns the end position of the record, or -1 when the journal has no room for it
+    synchronized int append(byte[] payload) {
+        int end = writePosition + RECORD_HEADER_SIZE + payload.length;
+        if (end > capacity) {
+            return -1;
+        }
+
+        buffer.put(writePosition + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(writePosition + 4, epoch);
+        buffer.putInt(writePosition + 8, checksum(epoch, payload));
+        // the length goes last, a reader never sees a record without its payload
+        buffer.putInt(writePosition, payload.length);
+
+        writePosition = end;
+        return end;
+    }
+
+    // group commit: one force covers every record appended before it, callers that arrive
+    // while it runs find their record durable and return without forcing again
+    void awaitDurable(int position) {
+        synchronized (syncLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+
+            int end;
+            synchronized (this) {
+                end = writePosition;
+            }
+            // a restarted journal has already flushed every earlier record to the database
+            if (end > durablePosition) {
+                buffer.force(durablePosition, end - durablePosition);
+                durablePosition = end;
+            }
+        }
+    }
+
+    // records up to position are in the database
+    synchronized void markFlushed(int position) {
+        flushedPosition = position;
+        buffer.putInt(FLUSHED_OFFSET, position);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    // starts over once every record is in the database, returns whether it did
+    synchronized boolean resetIfDrained() {
+        if (flushedPosition != writePosition || writePosition == HEADER_SIZE) {
+            return false;
+        }
+
+        epoch++;
+        writeHeader();
+        writePosition = HEADER_SIZE;
+        flushedPosition = HEADER_SIZE;
+        synchronized (syncLock) {
+            durablePosition = HEADER_SIZE;
+        }
+        return true;
+    }
+
+    synchronized int getWritePosition() {
+        return writePosition;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void recover() {
+        if (buffer.getInt(0) != MAGIC) {
+            epoch = 1;
+            writeHeader();
+            writePosition = HEADER_SIZE;
+            flushedPosition = HEADER_SIZE;
+            durablePosition = HEADER_SIZE;
+            return;
+        }
+
+        epoch = buffer.getInt(EPOCH_OFFSET);
+        flushedPosition = buffer.getInt(FLUSHED_OFFSET);
+
+        int position = flushedPosition;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity
+                    || buffer.getInt(position + 4) != epoch) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+            if (buffer.getInt(position + 8) != checksum(epoch, payload)) {
+                break;
+            }
+
+            position += RECORD_HEADER_SIZE + length;
+            unflushed.add(new Entry(payload, position));
+        }
+
+        writePosition = position;
+        durablePosition = position;
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(EPOCH_OFFSET, epoch);
+        buffer.putInt(FLUSHED_OFFSET, HEADER_SIZE);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    private static int checksum(int epoch, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(4).putInt(0, epoch));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
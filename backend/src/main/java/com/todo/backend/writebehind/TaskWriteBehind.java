@@ -0,0 +1,407 @@
+package com.todo.backend.writebehind;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.exception.InvalidTaskRequestException;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskImportRepository;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.util.TaskCsv;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// opt-in write-behind for single task creation (task.write-behind.enabled).
+// a task with its pre-allocated ids is appended to the journal and acknowledged once the journal
+// is forced to disk, a flusher thread then inserts buffered tasks in batches, with their outbox
+// events, and marks them flushed. buffered tasks stay visible to findRecentTasks, and completing one
+// flushes it first. a journal left with unflushed records is replayed at startup, even when the
+// mode has been switched off since. a task the database refuses for its data is set aside in the
+// rejected file, so it cannot hold up the tasks behind it
+@Component
+public class TaskWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehind.class);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final TaskImportRepository taskImportRepository;
+    private final TaskRepository taskRepository;
+    private final TaskOutbox taskOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path rejectedFile;
+
+    // null while the mode is off and no journal was left behind
+    private final TaskJournal journal;
+
+    // buffered tasks in journal order, guarded by pending
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private final Set<Long> pendingIds = new HashSet<>();
+
+    // one flush at a time, by the flusher or by a request that needs a buffered task in the database
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter flushedTasks;
+    private final Counter rejectedTasks;
+    private Thread flusher;
+
+    // recovered tasks may have reached the database before the crash, they are checked before the insert
+    private record Pending(Task task, int endPosition, boolean recovered) {
+    }
+
+    public TaskWriteBehind(TaskImportRepository taskImportRepository,
+                           TaskRepository taskRepository,
+                           TaskOutbox taskOutbox,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${task.write-behind.enabled:false}") boolean enabled,
+                           @Value("${task.write-behind.journal:task-journal.bin}") Path journalFile,
+                           @Value("${task.write-behind.journal-size:64MB}") DataSize journalSize,
+                           @Value("${task.write-behind.batch-size:500}") int batchSize,
+                           @Value("${task.write-behind.flush-interval:20ms}") Duration flushInterval,
+                           @Value("${task.write-behind.rejected:task-journal-rejected.csv}") Path rejectedFile) throws IOException {
+        this.taskImportRepository = taskImportRepository;
+        this.taskRepository = taskRepository;
+        this.taskOutbox = taskOutbox;
+        // flushes commit on their own, also when a bulk completion asks for one inside its transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.rejectedFile = rejectedFile;
+
+        this.journal = enabled || Files.exists(journalFile)
+                ? TaskJournal.open(journalFile, Math.toIntExact(journalSize.toBytes()))
+                : null;
+        if (journal != null) {
+            for (TaskJournal.Entry entry : journal.unflushed()) {
+                addPending(new Pending(decode(entry.payload()), entry.endPosition(), true));
+            }
+            if (!pending.isEmpty()) {
+                log.info("write-behind journal has {} unflushed tasks, replaying", pending.size());
+            }
+        }
+
+        Gauge.builder("task.write-behind.pending", this, TaskWriteBehind::getPendingCount)
+                .register(meterRegistry);
+        this.flushedTasks = Counter.builder("task.write-behind.flushed")
+                .description("Buffered tasks inserted into the database")
+                .register(meterRegistry);
+        this.rejectedTasks = Counter.builder("task.write-behind.rejected")
+                .description("Buffered tasks the database refused, written to the rejected file")
+                .register(meterRegistry);
+    }
+
+    // started once the schema is migrated, recovered tasks are inserted right away
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (journal != null && flusher == null) {
+            flusher = Thread.ofPlatform().name("task-write-behind").daemon(true).start(this::run);
+        }
+    }
+
+    // journals the task and returns once it is on disk, false when the mode is off or the journal is full.
+    // a task that cannot fit the columns is refused here, once acknowledged it has to be insertable
+    public boolean offer(Task task) {
+        if (!enabled) {
+            return false;
+        }
+
+        requireLength("Title", task.getTitle());
+        requireLength("Description", task.getDescription());
+        task.setVersion(0L);
+        byte[] payload = encode(task);
+
+        int end;
+        synchronized (pending) {
+            end = journal.append(payload);
+            if (end < 0) {
+                return false;
+            }
+            addPending(new Pending(task, end, false));
+            if (pending.size() >= batchSize) {
+                wakeUps.release();
+            }
+        }
+
+        journal.awaitDurable(end);
+        return true;
+    }
+
+    // the newest buffered tasks, newest first
+    public List<TaskView> recentPending(int limit) {
+        List<TaskView> tasks = new ArrayList<>();
+        synchronized (pending) {
+            Iterator<Pending> newestFirst = pending.descendingIterator();
+            while (newestFirst.hasNext() && tasks.size() < limit) {
+                tasks.add(TaskView.from(newestFirst.next().task()));
+            }
+        }
+        return tasks;
+    }
+
+    // makes sure the given tasks are in the database before they are updated there
+    public void flushIfPending(Collection<Long> ids) {
+        boolean buffered;
+        synchronized (pending) {
+            buffered = ids.stream().anyMatch(pendingIds::contains);
+        }
+        if (buffered) {
+            flushPending();
+        }
+    }
+
+    // inserts buffered tasks in journal order until none are left, returns the number taken from the buffer
+    public int flushPending() {
+        flushLock.lock();
+        try {
+            int flushed = 0;
+            while (true) {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                synchronized (pending) {
+                    Iterator<Pending> oldestFirst = pending.iterator();
+                    while (oldestFirst.hasNext() && batch.size() < batchSize) {
+                        batch.add(oldestFirst.next());
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                insertOrReject(batch);
+                // removed only now, so a reader that misses a task here finds it in the database
+                journal.markFlushed(batch.getLast().endPosition());
+                synchronized (pending) {
+                    for (Pending flushedTask : batch) {
+                        pending.removeFirst();
+                        pendingIds.remove(flushedTask.task().getId());
+                    }
+                }
+                flushedTasks.increment(batch.size());
+                flushed += batch.size();
+            }
+
+            if (journal != null) {
+                journal.resetIfDrained();
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        Thread running;
+        synchronized (this) {
+            running = flusher;
+        }
+        if (running != null) {
+            running.interrupt();
+            running.join();
+        }
+        if (journal != null) {
+            try {
+                flushPending();
+            } catch (RuntimeException exc) {
+                log.warn("write-behind flush on shutdown failed, the journal is replayed on the next start: {}", exc.toString());
+            }
+            journal.close();
+        }
+    }
+
+    // a batch the database refuses for its data is inserted again task by task, tasks it still
+    // refuses go to the rejected file. other failures propagate and the batch is retried as a whole
+    private void insertOrReject(List<Pending> batch) {
+        try {
+            insert(batch);
+            return;
+        } catch (DataIntegrityViolationException exc) {
+            if (batch.size() > 1) {
+                log.warn("write-behind batch of {} tasks refused, inserting them one by one: {}", batch.size(), exc.toString());
+            }
+        }
+
+        for (Pending task : batch) {
+            try {
+                insert(List.of(task));
+            } catch (DataIntegrityViolationException exc) {
+                reject(task.task(), exc);
+            }
+        }
+    }
+
+    // on disk before the journal is marked past the task, so a refused task is never lost
+    private void reject(Task task, DataIntegrityViolationException exc) {
+        log.error("write-behind task {} ({}) refused by the database, written to {}: {}",
+                task.getId(), task.getTaskId(), rejectedFile, exc.getMostSpecificCause().toString());
+
+        try (FileChannel channel = FileChannel.open(rejectedFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            StringWriter row = new StringWriter();
+            if (channel.size() == 0) {
+                TaskCsv.writeHeader(row);
+            }
+            TaskCsv.writeRow(row, TaskView.from(task));
+
+            ByteBuffer buffer = ByteBuffer.wrap(row.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ioExc) {
+            throw new UncheckedIOException(ioExc);
+        }
+        rejectedTasks.increment();
+    }
+
+    private void insert(List<Pending> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Task> tasks = batch.stream().map(Pending::task).toList();
+
+            // a crash between the insert commit and marking the journal leaves rows that exist already
+            if (batch.stream().anyMatch(Pending::recovered)) {
+                Set<Long> existingIds = new HashSet<>(taskRepository.findExistingIds(
+                        tasks.stream().map(Task::getId).toList()));
+                tasks = tasks.stream().filter(task -> !existingIds.contains(task.getId())).toList();
+            }
+
+            if (!tasks.isEmpty()) {
+                taskImportRepository.insertAll(tasks);
+                taskOutbox.tasksCreated(tasks.stream().map(TaskView::from).toList());
+            }
+        });
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                flushPending();
+                if (!enabled && getPendingCount() == 0) {
+                    // only a left over journal had to be replayed
+                    return;
+                }
+                wakeUps.tryAcquire(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException exc) {
+                return;
+            } catch (RuntimeException exc) {
+                log.warn("write-behind flush failed, retrying: {}", exc.toString());
+                try {
+                    Thread.sleep(Math.max(flushIntervalMillis, RETRY_DELAY_MILLIS));
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void requireLength(String field, String value) {
+        if (value != null && value.length() > Task.TEXT_LENGTH) {
+            throw new InvalidTaskRequestException(field + " cannot be longer than " + Task.TEXT_LENGTH + " characters");
+        }
+    }
+
+    private void addPending(Pending task) {
+        synchronized (pending) {
+            pending.addLast(task);
+            pendingIds.add(task.task().getId());
+        }
+    }
+
+    static byte[] encode(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Instant createdAt = task.getCreatedAt().toInstant(ZoneOffset.UTC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(task.getId());
+            out.writeUTF(task.getTaskId());
+            out.writeUTF(task.getTitle());
+            out.writeBoolean(task.getDescription() != null);
+            out.writeUTF(task.getDescription() == null ? "" : task.getDescription());
+            out.writeLong(createdAt.getEpochSecond());
+            out.writeInt(createdAt.getNano());
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Task decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unknown write-behind journal format " + version);
+            }
+            long id = in.readLong();
+            String taskId = in.readUTF();
+            String title = in.readUTF();
+            boolean hasDescription = in.readBoolean();
+            String description = in.readUTF();
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+
+            return Task.builder()
+                    .id(id)
+                    .taskId(taskId)
+                    .title(title)
+                    .description(hasDescription ? description : null)
+                    .completed(false)
+                    .createdAt(createdAt)
+                    .version(0L)
+                    .build();
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- migrations are written for mysql, the embedded test database runs them in compatibility mode
+SET MODE MySQL;
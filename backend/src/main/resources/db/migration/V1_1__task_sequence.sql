@@ -0,0 +1,7 @@
+-- blocks of task ids and primary keys, see SequenceBlockAllocator. after the baseline, so databases
+-- created by ddl-auto get it too. rows are seeded on first use
+CREATE TABLE task_sequence (
+    name     VARCHAR(255) NOT NULL,
+    next_val BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+);
@@ -0,0 +1,11 @@
+-- schema as it was created by hibernate ddl-auto, existing databases are baselined at this version
+
+CREATE TABLE task (
+    id          BIGINT       NOT NULL,
+    task_id     VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created_at  DATETIME(6)  NOT NULL,
+    completed   BOOLEAN      NOT NULL,
+    PRIMARY KEY (id)
+);
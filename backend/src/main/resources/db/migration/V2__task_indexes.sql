@@ -0,0 +1,5 @@
+-- open task listing: WHERE completed = false ORDER BY id DESC
+CREATE INDEX idx_task_completed_id ON task (completed, id);
+
+-- bulk completion and listing by creation date
+CREATE INDEX idx_task_completed_created_at ON task (completed, created_at);
@@ -0,0 +1,2 @@
+-- optimistic locking, bumped by every update of a task
+ALTER TABLE task ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- task changes for downstream systems, written in the transaction that makes the change
+-- and deleted by the outbox relay once they were published
+CREATE TABLE task_outbox (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    aggregate_id BIGINT      NOT NULL,
+    event_type   VARCHAR(32) NOT NULL,
+    payload      TEXT,
+    created_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
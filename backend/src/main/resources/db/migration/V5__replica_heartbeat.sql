@@ -0,0 +1,8 @@
+-- written by the primary on every replica check, a replica that still reads an old value is lagging behind
+CREATE TABLE replica_heartbeat (
+    id          INT    NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, 0);
@@ -0,0 +1,12 @@
+-- completed tasks moved out of the task table by the archiver, read back by id or task id on demand
+CREATE TABLE task_archive (
+    id          BIGINT       NOT NULL,
+    task_id     VARCHAR(255) NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    created_at  DATETIME(6)  NOT NULL,
+    archived_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_task_archive_task_id ON task_archive (task_id);
@@ -0,0 +1,35 @@
+-- lookup and completion by the business id, task ids are handed out once by TaskIdGenerator.
+-- the generator before it took MAX(id) + 1 without a lock, so concurrent creates could share a task id.
+-- the oldest row keeps it, the others get fresh ids from the task id sequence before the index is built
+
+-- seeded the way SequenceBlockAllocator seeds it on first use
+INSERT INTO task_sequence (name, next_val)
+SELECT 'task', next_start
+FROM (SELECT COALESCE(MAX(id), 0) + 1 AS next_start FROM task) max_task
+WHERE NOT EXISTS (SELECT 1 FROM task_sequence WHERE name = 'task');
+
+CREATE TABLE task_id_renumber (
+    id  BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO task_id_renumber (id, seq)
+SELECT t.id, ROW_NUMBER() OVER (ORDER BY t.id) - 1
+FROM task t
+JOIN (SELECT task_id, MIN(id) AS keep_id FROM task GROUP BY task_id HAVING COUNT(*) > 1) duplicate
+    ON duplicate.task_id = t.task_id
+WHERE t.id <> duplicate.keep_id;
+
+UPDATE task
+SET task_id = CONCAT('TSK ', (SELECT next_val FROM task_sequence WHERE name = 'task')
+                             + (SELECT seq FROM task_id_renumber WHERE task_id_renumber.id = task.id))
+WHERE id IN (SELECT id FROM task_id_renumber);
+
+UPDATE task_sequence
+SET next_val = next_val + (SELECT COUNT(*) FROM task_id_renumber)
+WHERE name = 'task';
+
+DROP TABLE task_id_renumber;
+
+CREATE UNIQUE INDEX uk_task_task_id ON task (task_id);
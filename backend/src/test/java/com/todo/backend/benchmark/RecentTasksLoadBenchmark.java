@@ -0,0 +1,97 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// read heavy mix against /recent, run with: mvn test -Dtest=RecentTasksLoadBenchmark -Dbenchmark=true
+@SpringBootTest(properties = {
+        "task.recent-cache.enabled=true",
+        "task.sql.log-sample-rate=0",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RecentTasksLoadBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25_000;
+    private static final double WRITE_RATIO = 0.01;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private RecentTasksCache recentTasksCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readHeavyMix_QueriesPerSecondDropWithCache() throws Exception {
+        taskRepository.deleteAllInBatch();
+        for (int i = 0; i < 20; i++) {
+            taskService.createTask(dto(i));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    if (ThreadLocalRandom.current().nextDouble() < WRITE_RATIO) {
+                        taskService.createTask(dto(i));
+                    } else {
+                        taskService.findRecentTasks();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long queries = statistics.getQueryExecutionCount();
+
+        System.out.printf("operations   : %d in %.2f s%n", THREADS * OPERATIONS_PER_THREAD, seconds);
+        System.out.printf("select/sec   : %.1f%n", queries / seconds);
+        System.out.printf("cache hits   : %d, misses: %d%n", recentTasksCache.getHitCount(), recentTasksCache.getMissCount());
+
+        // only the first read and the rare id block reservation reach the database
+        Assertions.assertTrue(queries < THREADS * OPERATIONS_PER_THREAD / 100);
+    }
+
+    private AddTaskDto dto(int i) {
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Load Task " + i);
+        dto.setDescription("Load Desc " + i);
+        return dto;
+    }
+}
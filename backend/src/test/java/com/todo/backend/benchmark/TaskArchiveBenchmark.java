@@ -0,0 +1,146 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskImportRepository;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskArchiveService;
+import com.todo.backend.util.TaskIdGenerator;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /recent latency while completed history piles up in the task table, and after the archiver moved it out.
+// the recent tasks cache is off (test profile), so every request reaches the database
+// run with: mvn test -Dtest=TaskArchiveBenchmark -Dbenchmark=true [-Darchive.history=1000000]
+@SpringBootTest(properties = {
+        "task.archive.batch-size=1000",
+        "task.archive.batch-pause=0ms",
+        "task.sql.log-sample-rate=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskArchiveBenchmark {
+
+    private static final int OPEN_TASKS = 1_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int REQUESTS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskImportRepository taskImportRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recentTasks_GrowingHistory_LatencyStaysFlatOnceArchived() throws Exception {
+        int history = Integer.getInteger("archive.history", 1_000_000);
+
+        taskRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM task_archive");
+        insertTasks(OPEN_TASKS, false, LocalDateTime.now());
+
+        // the first rounds mostly measure the jit
+        measureRecent();
+        measureRecent();
+
+        System.out.printf("%-22s %10s %10s%n", "completed history", "p50 ms", "p99 ms");
+        Histogram baseline = measureRecent();
+        print("0 in task table", baseline);
+
+        int inserted = 0;
+        for (int target : new int[]{history / 10, history}) {
+            insertTasks(target - inserted, true, LocalDateTime.now().minusDays(60));
+            inserted = target;
+            print(target + " in task table", measureRecent());
+        }
+
+        long start = System.nanoTime();
+        int archived = taskArchiveService.archiveCompletedTasks();
+        double archiveSeconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram afterArchive = measureRecent();
+        print(history + " archived", afterArchive);
+        System.out.printf("archived %d tasks in %.1f s (%.0f tasks/s)%n", archived, archiveSeconds, archived / archiveSeconds);
+
+        Assertions.assertEquals(history, archived);
+        Assertions.assertEquals(OPEN_TASKS, taskRepository.count());
+        // the open task query sees the same rows it saw before any history existed
+        double baselineP99 = millis(baseline.getValueAtPercentile(99));
+        double archivedP99 = millis(afterArchive.getValueAtPercentile(99));
+        Assertions.assertTrue(archivedP99 <= baselineP99 * 2 + 1,
+                String.format("p99 %.2f ms after archiving, %.2f ms without history", archivedP99, baselineP99));
+    }
+
+    private Histogram measureRecent() throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            mockMvc.perform(get("/api/tasks/recent")).andExpect(status().isOk());
+        }
+
+        Histogram histogram = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/api/tasks/recent")).andExpect(status().isOk());
+            histogram.recordValue(System.nanoTime() - start);
+        }
+        return histogram;
+    }
+
+    private void insertTasks(int count, boolean completed, LocalDateTime createdAt) {
+        for (int from = 0; from < count; from += INSERT_BATCH) {
+            int size = Math.min(INSERT_BATCH, count - from);
+            long firstId = taskIdGenerator.reservePrimaryKeys(size);
+            long firstTaskId = taskIdGenerator.reserveTaskIds(size);
+
+            List<Task> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(Task.builder()
+                        .id(firstId + i)
+                        .taskId("TSK " + (firstTaskId + i))
+                        .title("History Task " + (firstTaskId + i))
+                        .description("History Desc")
+                        .completed(completed)
+                        .createdAt(createdAt)
+                        .build());
+            }
+            taskImportRepository.insertAll(tasks);
+        }
+    }
+
+    private static void print(String label, Histogram histogram) {
+        System.out.printf("%-22s %10.3f %10.3f%n", label,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
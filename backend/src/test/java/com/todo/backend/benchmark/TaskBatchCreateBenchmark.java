@@ -0,0 +1,82 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// run with: mvn test -Dtest=TaskBatchCreateBenchmark -Dbenchmark=true
+@SpringBootTest(properties = {
+        "task.sql.log-sample-rate=0"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskBatchCreateBenchmark {
+
+    private static final int TASKS = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void cleanDb() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleCreates_VersusBatchedCreates() {
+        // warm up both paths
+        createOneByOne(500);
+        createInBatches(500);
+        taskRepository.deleteAllInBatch();
+
+        long singleNanos = createOneByOne(TASKS);
+        long batchedNanos = createInBatches(TASKS);
+
+        System.out.printf("single creates : %d tasks in %d ms%n", TASKS, singleNanos / 1_000_000);
+        System.out.printf("batched creates: %d tasks in %d ms%n", TASKS, batchedNanos / 1_000_000);
+
+        Assertions.assertEquals(2L * TASKS, taskRepository.count());
+        Assertions.assertTrue(batchedNanos < singleNanos);
+    }
+
+    private long createOneByOne(int count) {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            taskService.createTask(dto(i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long createInBatches(int count) {
+        long start = System.nanoTime();
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            List<AddTaskDto> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(count, from + BATCH_SIZE); i++) {
+                batch.add(dto(i));
+            }
+            taskService.createTasks(batch);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private AddTaskDto dto(int i) {
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Benchmark Task " + i);
+        dto.setDescription("Benchmark Desc " + i);
+        return dto;
+    }
+}
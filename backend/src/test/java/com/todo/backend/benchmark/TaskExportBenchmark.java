@@ -0,0 +1,100 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.OutputStream;
+
+// exports 1M tasks while the heap is far smaller than the export,
+// run with: mvn test -Dtest=TaskExportBenchmark -Dbenchmark=true -DargLine=-Xmx128m
+@SpringBootTest(properties = {
+        // file backed so the rows themselves do not live on the heap
+        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark/db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LAZY_QUERY_EXECUTION=TRUE",
+        "task.sql.log-sample-rate=0"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskExportBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final long MAX_HEAP = 128L * 1024 * 1024;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void removeOldDatabase() {
+        File[] files = new File("target/export-benchmark").listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    void export_MillionRows_FitsInSmallHeap() throws Exception {
+        Assertions.assertTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP, "run with -DargLine=-Xmx128m");
+
+        jdbcTemplate.update("INSERT INTO task (id, task_id, title, description, created_at, completed) " +
+                "SELECT r.n, CONCAT('TSK ', r.n), CONCAT('Export Task ', r.n), REPEAT('d', 200), CURRENT_TIMESTAMP, FALSE " +
+                "FROM SYSTEM_RANGE(1, ?) r(n)", TASKS);
+
+        CountingOutputStream ndjson = new CountingOutputStream();
+        long start = System.nanoTime();
+        long rows = taskService.exportTasks(TaskFileFormat.NDJSON, ndjson);
+        long ndjsonMillis = (System.nanoTime() - start) / 1_000_000;
+
+        CountingOutputStream csv = new CountingOutputStream();
+        start = System.nanoTime();
+        taskService.exportTasks(TaskFileFormat.CSV, csv);
+        long csvMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("heap limit      : %d MB%n", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        System.out.printf("ndjson export   : %d rows, %d MB in %d ms%n", rows, ndjson.bytes / (1024 * 1024), ndjsonMillis);
+        System.out.printf("csv export      : %d rows, %d MB in %d ms%n", csv.lines - 1, csv.bytes / (1024 * 1024), csvMillis);
+
+        Assertions.assertEquals(TASKS, rows);
+        Assertions.assertEquals(TASKS, ndjson.lines);
+        Assertions.assertEquals(TASKS + 1, csv.lines);
+        // the export is larger than the whole heap, so it cannot have been buffered
+        Assertions.assertTrue(ndjson.bytes > Runtime.getRuntime().maxMemory());
+    }
+
+    // discards the export, keeping only its size
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
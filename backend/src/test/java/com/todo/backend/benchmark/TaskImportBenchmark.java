@@ -0,0 +1,70 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskImportResponse;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskImportService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+// rows per second through the import pipeline, run with: mvn test -Dtest=TaskImportBenchmark -Dbenchmark=true
+@SpringBootTest(properties = {
+        "task.sql.log-sample-rate=0"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskImportBenchmark {
+
+    private static final int TASKS = 500_000;
+    private static final int WARMUP_TASKS = 100_000;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void importNdjson_RowsPerSecond() throws Exception {
+        // warm up
+        runImport(ndjson(WARMUP_TASKS));
+        taskRepository.deleteAllInBatch();
+
+        byte[] body = ndjson(TASKS);
+        long start = System.nanoTime();
+        TaskImportResponse report = runImport(body);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("ndjson import : %d rows in %.2f s, %.0f rows/s%n",
+                report.getImportedCount(), seconds, report.getImportedCount() / seconds);
+
+        Assertions.assertEquals("COMPLETED", report.getStatus());
+        Assertions.assertEquals(TASKS, report.getImportedCount());
+        Assertions.assertEquals(TASKS, taskRepository.count());
+    }
+
+    private TaskImportResponse runImport(byte[] body) throws Exception {
+        TaskImportResponse report = taskImportService.startImport(TaskFileFormat.NDJSON, new ByteArrayInputStream(body));
+        while (report.getStatus().equals("RUNNING")) {
+            Thread.sleep(10);
+            report = taskImportService.findImport(report.getImportId());
+        }
+        return report;
+    }
+
+    private static byte[] ndjson(int tasks) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < tasks; i++) {
+            ndjson.append("{\"title\":\"Import Task ").append(i)
+                    .append("\",\"description\":\"Import Desc ").append(i).append("\"}\n");
+        }
+        return ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
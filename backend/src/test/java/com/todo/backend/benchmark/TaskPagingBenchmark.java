@@ -0,0 +1,90 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.PageResponse;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// page 1 against page 1000 of GET /api/tasks, run with: mvn test -Dtest=TaskPagingBenchmark -Dbenchmark=true
+@SpringBootTest(properties = {
+        "task.sql.log-sample-rate=0"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskPagingBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 1000;
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void deepPage_CostsTheSameAsFirstPage() {
+        taskRepository.deleteAllInBatch();
+        for (int from = 0; from < TASKS; from += 1_000) {
+            List<AddTaskDto> batch = new ArrayList<>();
+            for (int i = from; i < from + 1_000; i++) {
+                AddTaskDto dto = new AddTaskDto();
+                dto.setTitle("Paging Task " + i);
+                dto.setDescription("Paging Desc " + i);
+                batch.add(dto);
+            }
+            taskService.createTasks(batch);
+        }
+
+        // walk down to the cursor that opens page 1000
+        String deepCursor = null;
+        for (int page = 1; page < DEEP_PAGE; page++) {
+            deepCursor = taskService.findTasks(request(deepCursor)).getNextCursor();
+        }
+
+        long firstPageNanos = time(null);
+        long deepPageNanos = time(deepCursor);
+
+        PageResponse<TaskSummary> deepPage = taskService.findTasks(request(deepCursor));
+        Assertions.assertEquals(PAGE_SIZE, deepPage.getEntityList().size());
+
+        System.out.printf("page 1    : %d us%n", firstPageNanos / ROUNDS / 1_000);
+        System.out.printf("page %d : %d us%n", DEEP_PAGE, deepPageNanos / ROUNDS / 1_000);
+
+        // keyset paging does not scan the skipped rows, allow generous noise
+        Assertions.assertTrue(deepPageNanos < firstPageNanos * 3);
+    }
+
+    private long time(String cursor) {
+        // warm up
+        for (int i = 0; i < ROUNDS; i++) {
+            taskService.findTasks(request(cursor));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            taskService.findTasks(request(cursor));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private TaskPageRequest request(String cursor) {
+        TaskPageRequest request = new TaskPageRequest();
+        request.setCursor(cursor);
+        request.setSize(PAGE_SIZE);
+        return request;
+    }
+}
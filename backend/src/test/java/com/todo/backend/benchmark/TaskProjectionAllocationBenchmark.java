@@ -0,0 +1,107 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// bytes allocated per listing request, entity rows against projections,
+// run with: mvn test -Dtest=TaskProjectionAllocationBenchmark -Dbenchmark=true
+@SpringBootTest(properties = {
+        "task.sql.log-sample-rate=0"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskProjectionAllocationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ROUNDS = 2_000;
+    private static final String LARGE_DESCRIPTION = "x".repeat(250);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void projections_AllocateLessThanEntities() {
+        taskRepository.deleteAllInBatch();
+        List<AddTaskDto> batch = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            AddTaskDto dto = new AddTaskDto();
+            dto.setTitle("Allocation Task " + i);
+            dto.setDescription(LARGE_DESCRIPTION);
+            batch.add(dto);
+        }
+        taskService.createTasks(batch);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // the listing as it was served before, managed entities in a read-write transaction
+        long entityBytes = allocatedPerRequest(() -> {
+            List<Task> tasks = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT t FROM Task t WHERE t.completed = false ORDER BY t.id DESC", Task.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList());
+
+            ListResponse<Task> response = new ListResponse<>();
+            response.setEntityList(tasks);
+            return objectMapper.writeValueAsBytes(response);
+        });
+
+        long projectionBytes = allocatedPerRequest(() -> {
+            TaskPageRequest request = new TaskPageRequest();
+            request.setCompleted(false);
+            request.setSize(PAGE_SIZE);
+            return objectMapper.writeValueAsBytes(taskService.findTasks(request));
+        });
+
+        System.out.printf("entities    : %d bytes/request%n", entityBytes);
+        System.out.printf("projections : %d bytes/request%n", projectionBytes);
+
+        Assertions.assertTrue(projectionBytes < entityBytes);
+    }
+
+    private long allocatedPerRequest(Supplier<byte[]> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // warm up
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ROUNDS;
+    }
+}
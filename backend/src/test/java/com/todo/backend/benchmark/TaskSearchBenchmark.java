@@ -0,0 +1,107 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.search.TaskSearchIndex;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// query latency of the search index over a file index of many tasks, the database is not involved.
+// titles and descriptions are drawn from a fixed vocabulary, queries are one or two of its words
+// run with: mvn test -Dtest=TaskSearchBenchmark -Dbenchmark=true [-Dsearch.tasks=1000000] [-Dsearch.p99-ms=10]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskSearchBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int QUERIES = 5_000;
+    private static final int PAGE_SIZE = 20;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void search_MillionsOfTasks_StaysInLowMilliseconds() throws Exception {
+        int tasks = Integer.getInteger("search.tasks", 1_000_000);
+        long p99BudgetMillis = Long.getLong("search.p99-ms", 10);
+
+        String[] words = vocabulary(new Random(7));
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        TaskSearchIndex index = new TaskSearchIndex(directory.toString(), Duration.ofSeconds(1), Duration.ofHours(1));
+        try {
+            long start = System.nanoTime();
+            Random random = new Random(11);
+            index.rebuild(() -> LongStream.rangeClosed(1, tasks).mapToObj(id -> new TaskView(
+                    id,
+                    "TSK " + id,
+                    sentence(random, words, 4),
+                    sentence(random, words, 12),
+                    createdAt.minusSeconds(tasks - id),
+                    id % 3 == 0)));
+            long indexMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Random queries = new Random(13);
+            // warm up, then measure
+            runQueries(index, words, queries, new Histogram(3));
+            Histogram histogram = new Histogram(3);
+            runQueries(index, words, queries, histogram);
+
+            double p50Millis = histogram.getValueAtPercentile(50) / 1_000_000.0;
+            double p99Millis = histogram.getValueAtPercentile(99) / 1_000_000.0;
+
+            System.out.printf("tasks indexed   : %d in %d ms%n", index.size(), indexMillis);
+            System.out.printf("query p50 / p99 : %.2f / %.2f ms%n", p50Millis, p99Millis);
+            System.out.printf("query max       : %.2f ms%n", histogram.getMaxValue() / 1_000_000.0);
+
+            Assertions.assertEquals(tasks, index.size());
+            Assertions.assertTrue(p99Millis <= p99BudgetMillis,
+                    String.format("p99 %.2f ms is over the %d ms budget", p99Millis, p99BudgetMillis));
+        } finally {
+            index.close();
+        }
+    }
+
+    // one or two words, half of the queries filter on the completed state
+    private static void runQueries(TaskSearchIndex index, String[] words, Random random, Histogram histogram) throws Exception {
+        for (int i = 0; i < QUERIES; i++) {
+            String query = random.nextBoolean()
+                    ? words[random.nextInt(words.length)]
+                    : words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            Boolean completed = random.nextBoolean() ? null : random.nextBoolean();
+
+            long start = System.nanoTime();
+            index.search(query, completed, 0, PAGE_SIZE + 1);
+            histogram.recordValue(System.nanoTime() - start);
+        }
+    }
+
+    private static String[] vocabulary(Random random) {
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private static String sentence(Random random, String[] words, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sentence.append(i == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+        }
+        return sentence.toString();
+    }
+}
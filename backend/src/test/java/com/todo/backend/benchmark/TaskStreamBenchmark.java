@@ -0,0 +1,176 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.BackendApplication;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+// opens many idle /api/tasks/stream subscribers, reports server heap and threads per connection
+// and checks that one created task reaches every subscriber. the subscribers run in a separate
+// jvm, so only the server side is measured.
+// run with: mvn test -Dtest=TaskStreamBenchmark -Dbenchmark=true [-Dstream.subscribers=5000]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TaskStreamBenchmark {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("stream.subscribers", 2_000);
+
+    // a request thread budget far below the subscriber count
+    private static final int REQUEST_THREADS = 50;
+
+    // tomcat connection, request and socket buffers included, they are about 100 KB of it
+    private static final long MAX_BYTES_PER_SUBSCRIBER = 128 * 1024;
+
+    @Test
+    void idleSubscribers_MemoryAndThreadsPerConnection() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + REQUEST_THREADS,
+                        "--server.tomcat.max-connections=" + (SUBSCRIBERS + 100),
+                        "--spring.datasource.url=jdbc:h2:mem:stream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+
+            String uri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks/stream";
+
+            // warm up the stream path, then measure a fresh set of subscribers
+            runSubscribers(context, uri, 20, false);
+            Thread.sleep(1_000);
+            runSubscribers(context, uri, SUBSCRIBERS, true);
+        }
+    }
+
+    private void runSubscribers(ConfigurableApplicationContext context, String uri, int count, boolean report) throws Exception {
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        Process clients = new ProcessBuilder(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                TaskStreamBenchmark.class.getName(), uri, Integer.toString(count))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(clients.getInputStream(), StandardCharsets.UTF_8))) {
+            Assertions.assertEquals("connected", output.readLine());
+
+            long heapAfter = usedHeapAfterGc();
+            int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            AddTaskDto dto = new AddTaskDto();
+            dto.setTitle("Broadcast Task");
+            dto.setDescription("Broadcast Desc");
+            long start = System.nanoTime();
+            context.getBean(TaskService.class).createTask(dto);
+            String received = output.readLine();
+            double fanOutMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            Assertions.assertEquals("received", received);
+            if (!report) {
+                return;
+            }
+
+            long bytesPerSubscriber = (heapAfter - heapBefore) / count;
+            System.out.printf("subscribers        : %d%n", count);
+            System.out.printf("heap per connection: %.1f KB%n", bytesPerSubscriber / 1024.0);
+            System.out.printf("threads added      : %d%n", threadsAfter - threadsBefore);
+            System.out.printf("fan-out of 1 event : %.0f ms%n", fanOutMillis);
+
+            Assertions.assertTrue(bytesPerSubscriber < MAX_BYTES_PER_SUBSCRIBER, bytesPerSubscriber + " bytes per subscriber");
+            Assertions.assertTrue(threadsAfter - threadsBefore <= REQUEST_THREADS,
+                    (threadsAfter - threadsBefore) + " threads added");
+        } finally {
+            clients.destroy();
+            clients.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // the subscriber process: prints "connected" once every stream is open and "received" once
+    // every stream saw a created event. responses are read by line subscribers, no thread per stream
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int count = Integer.parseInt(args[1]);
+
+        CountDownLatch connected = new CountDownLatch(count);
+        CountDownLatch received = new CountDownLatch(count);
+        HttpClient client = HttpClient.newHttpClient();
+
+        for (int i = 0; i < count; i++) {
+            client.sendAsync(HttpRequest.newBuilder(uri).header("Accept", "text/event-stream").build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new EventLines(connected, received)));
+        }
+
+        if (!connected.await(2, TimeUnit.MINUTES)) {
+            System.err.println(connected.getCount() + " subscribers did not connect");
+            System.exit(1);
+        }
+        System.out.println("connected");
+
+        if (!received.await(1, TimeUnit.MINUTES)) {
+            System.err.println(received.getCount() + " subscribers did not receive the event");
+            System.exit(1);
+        }
+        System.out.println("received");
+
+        // the parent ends this process
+        Thread.sleep(Long.MAX_VALUE);
+    }
+
+    private static class EventLines implements Flow.Subscriber<String> {
+
+        private final CountDownLatch connected;
+        private final CountDownLatch received;
+        private boolean counted;
+
+        EventLines(CountDownLatch connected, CountDownLatch received) {
+            this.connected = connected;
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+            connected.countDown();
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!counted && line.equals("event:created")) {
+                counted = true;
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.todo.backend.benchmark;
+
+import com.todo.backend.BackendApplication;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// throughput and p99 of GET /api/tasks with platform and virtual request threads,
+// run with: mvn test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    @Test
+    void platformThreads_VersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("platform threads : %.0f req/s, p99 %.1f ms%n", platform.throughput(), platform.p99Millis());
+        System.out.printf("virtual threads  : %.0f req/s, p99 %.1f ms%n", virtual.throughput(), virtual.p99Millis());
+
+        Assertions.assertEquals(0, platform.errors());
+        Assertions.assertEquals(0, virtual.errors());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        // command line arguments, properties() would lose against the test profile
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // a small platform pool makes exhaustion visible at this client count
+                        "--server.tomcat.threads.max=50",
+                        "--spring.datasource.url=jdbc:h2:mem:vt" + virtualThreads + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--task.sql.log-sample-rate=0")) {
+
+            TaskService taskService = context.getBean(TaskService.class);
+            List<AddTaskDto> batch = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                AddTaskDto dto = new AddTaskDto();
+                dto.setTitle("Load Task " + i);
+                dto.setDescription("Load Desc " + i);
+                batch.add(dto);
+            }
+            taskService.createTasks(batch);
+
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/tasks?size=50");
+
+            // warm up
+            drive(uri, 50, 20);
+            return drive(uri, CLIENTS, REQUESTS_PER_CLIENT);
+        }
+    }
+
+    private Result drive(URI uri, int clients, int requestsPerClient) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long[] latencies = new long[clients * requestsPerClient];
+        int[] errors = new int[1];
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c * requestsPerClient;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                synchronized (errors) {
+                                    errors[0]++;
+                                }
+                            }
+                        } catch (Exception exc) {
+                            synchronized (errors) {
+                                errors[0]++;
+                            }
+                        }
+                        latencies[offset + i] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        double p99Millis = latencies[(int) (latencies.length * 0.99)] / 1e6;
+        return new Result(latencies.length / seconds, p99Millis, errors[0]);
+    }
+
+    private record Result(double throughput, double p99Millis, int errors) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.todo.backend.cache;
+
+import com.todo.backend.exception.InvalidTaskRequestException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotencyCacheTests {
+
+    private final IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(1), 2);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void execute_SameKey_RunsOnceAndReplays() {
+        // act
+        ResponseEntity<Integer> first = cache.execute("key", "request", this::call);
+        ResponseEntity<Integer> retry = cache.execute("key", "request", this::call);
+
+        // assert
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(first.getBody(), retry.getBody());
+        Assertions.assertEquals("true", retry.getHeaders().getFirst(IdempotencyCache.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_NoKey_AlwaysRuns() {
+        // act
+        cache.execute(null, "request", this::call);
+        cache.execute(null, "request", this::call);
+
+        // assert
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_KeyOfAnotherRequest_Throws() {
+        // arrange
+        cache.execute("key", "request", this::call);
+
+        // act + assert
+        Assertions.assertThrows(InvalidTaskRequestException.class,
+                () -> cache.execute("key", "other request", this::call));
+    }
+
+    @Test
+    void execute_FailedCall_IsNotRemembered() {
+        // arrange
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.execute("key", "request", () -> {
+            throw new IllegalStateException("timeout");
+        }));
+
+        // act
+        ResponseEntity<Integer> retry = cache.execute("key", "request", this::call);
+
+        // assert
+        Assertions.assertEquals(1, retry.getBody());
+        Assertions.assertNull(retry.getHeaders().getFirst(IdempotencyCache.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_OverCapacity_ForgetsOldestKey() {
+        // arrange
+        cache.execute("first", "request", this::call);
+        cache.execute("second", "request", this::call);
+        cache.execute("third", "request", this::call);
+
+        // act
+        cache.execute("first", "request", this::call);
+
+        // assert
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    private ResponseEntity<Integer> call() {
+        return ResponseEntity.ok(calls.incrementAndGet());
+    }
+}
@@ -0,0 +1,116 @@
+package com.todo.backend.cache;
+
+import com.todo.backend.dto.TaskView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+public class RecentTasksCacheTests {
+
+    private final RecentTasksCache cache = new RecentTasksCache(true, Duration.ofMinutes(1));
+
+    @Test
+    void get_BeforeLoad_CountsMiss() {
+        Assertions.assertTrue(cache.get().isEmpty());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void get_AfterLoad_CountsHit() {
+        // arrange
+        cache.load(cache.generation(), tasks(5, 4, 3));
+
+        // act
+        List<TaskView> cached = cache.get().orElseThrow();
+
+        // assert
+        Assertions.assertEquals(List.of(5L, 4L, 3L), ids(cached));
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void taskCreated_PushesNewestAndKeepsLimit() {
+        // arrange
+        cache.load(cache.generation(), tasks(5, 4, 3, 2, 1));
+
+        // act
+        cache.taskCreated(task(6));
+
+        // assert
+        Assertions.assertEquals(List.of(6L, 5L, 4L, 3L, 2L), ids(cache.get().orElseThrow()));
+    }
+
+    @Test
+    void tasksCompleted_FullPage_DropsCacheSoOlderTasksAreReloaded() {
+        // arrange
+        cache.load(cache.generation(), tasks(5, 4, 3, 2, 1));
+
+        // act
+        cache.tasksCompleted(List.of(4L));
+
+        // assert
+        Assertions.assertTrue(cache.get().isEmpty());
+    }
+
+    @Test
+    void tasksCompleted_AllOpenTasksCached_RemovesInPlace() {
+        // arrange - fewer rows than the limit, so nothing older exists
+        cache.load(cache.generation(), tasks(3, 2, 1));
+
+        // act
+        cache.tasksCompleted(List.of(2L));
+
+        // assert
+        Assertions.assertEquals(List.of(3L, 1L), ids(cache.get().orElseThrow()));
+    }
+
+    @Test
+    void load_WriteDuringRead_IsNotInstalled() {
+        // arrange
+        long generation = cache.generation();
+        cache.invalidate();
+
+        // act
+        cache.load(generation, tasks(2, 1));
+
+        // assert
+        Assertions.assertTrue(cache.get().isEmpty());
+    }
+
+    @Test
+    void get_ExpiredTtl_CountsMiss() {
+        // arrange
+        RecentTasksCache expiring = new RecentTasksCache(true, Duration.ZERO);
+        expiring.load(expiring.generation(), tasks(1));
+
+        // act + assert
+        Assertions.assertTrue(expiring.get().isEmpty());
+    }
+
+    @Test
+    void get_Disabled_AlwaysMisses() {
+        // arrange
+        RecentTasksCache disabled = new RecentTasksCache(false, Duration.ofMinutes(1));
+        disabled.load(disabled.generation(), tasks(1));
+
+        // act + assert
+        Assertions.assertTrue(disabled.get().isEmpty());
+    }
+
+    private List<TaskView> tasks(long... ids) {
+        return LongStream.of(ids).mapToObj(this::task).toList();
+    }
+
+    private TaskView task(long id) {
+        return new TaskView(id, "TSK " + id, "Task " + id, "Desc " + id, LocalDateTime.now(), false);
+    }
+
+    private List<Long> ids(List<TaskView> tasks) {
+        return tasks.stream().map(TaskView::getId).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.todo.backend.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TaskIdCacheTests {
+
+    private final TaskIdCache cache = new TaskIdCache(2);
+
+    @Test
+    void put_OverCapacity_DropsLeastRecentlyUsed() {
+        // arrange
+        cache.put("TSK 1", 1);
+        cache.put("TSK 2", 2);
+        cache.get("TSK 1");
+
+        // act
+        cache.put("TSK 3", 3);
+
+        // assert
+        Assertions.assertEquals(1L, cache.get("TSK 1"));
+        Assertions.assertNull(cache.get("TSK 2"));
+        Assertions.assertEquals(3L, cache.get("TSK 3"));
+    }
+
+    @Test
+    void evict_RemovesMapping() {
+        // arrange
+        cache.put("TSK 1", 1);
+
+        // act
+        cache.evict("TSK 1");
+
+        // assert
+        Assertions.assertNull(cache.get("TSK 1"));
+    }
+}
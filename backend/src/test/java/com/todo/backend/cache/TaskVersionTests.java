@@ -0,0 +1,45 @@
+package com.todo.backend.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class TaskVersionTests {
+
+    @Test
+    void etag_ChangesOnlyWithTasks() {
+        // arrange
+        TaskVersion version = new TaskVersion(Duration.ofMinutes(1));
+        String before = version.etag();
+
+        // act
+        String unchanged = version.etag();
+        version.changed();
+        String changed = version.etag();
+
+        // assert
+        Assertions.assertEquals(before, unchanged);
+        Assertions.assertNotEquals(before, changed);
+        Assertions.assertTrue(changed.startsWith("W/\""), changed);
+    }
+
+    @Test
+    void etag_RollsOverAfterTtl() throws InterruptedException {
+        // arrange
+        TaskVersion version = new TaskVersion(Duration.ofMillis(20));
+        String before = version.etag();
+
+        // act
+        Thread.sleep(50);
+
+        // assert
+        Assertions.assertNotEquals(before, version.etag());
+    }
+
+    @Test
+    void etag_DiffersBetweenInstances() {
+        // act + assert
+        Assertions.assertNotEquals(new TaskVersion(Duration.ofMinutes(1)).etag(), new TaskVersion(Duration.ofMinutes(1)).etag());
+    }
+}
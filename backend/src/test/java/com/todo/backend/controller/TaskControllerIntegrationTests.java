@@ -1,8 +1,12 @@
 package com.todo.backend.controller;
 
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
 import com.todo.backend.entity.Task;
 import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.service.TaskArchiveService;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,13 +15,24 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -34,6 +49,12 @@ public class TaskControllerIntegrationTests {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
     @BeforeEach
     void setUp() {
         // clean DB before each test
@@ -107,8 +128,99 @@ public class TaskControllerIntegrationTests {
         mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Task has been completed"))
-                .andExpect(jsonPath("$.task.id").value(saved.getId()))
-                .andExpect(jsonPath("$.task.completed").value(true));
+                .andExpect(jsonPath("$.id").value(saved.getId()))
+                .andExpect(jsonPath("$.completedNow").value(true));
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Task was already completed"))
+                .andExpect(jsonPath("$.completedNow").value(false));
+    }
+
+    @Test
+    void completeTask_ConcurrentRequests_CompletesOnce() throws Exception {
+        // arrange
+        Task saved = taskRepository.save(Task.builder()
+                .taskId("TSK 1")
+                .title("Contended")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        // act
+        List<JsonNode> responses = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId()))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString()));
+            }
+            for (Future<String> future : futures) {
+                responses.add(objectMapper.readTree(future.get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // assert - exactly one request completed it, the row was written once
+        Assertions.assertEquals(1, responses.stream().filter(response -> response.get("completedNow").asBoolean()).count());
+        Task fromDb = taskRepository.findById(saved.getId()).orElseThrow();
+        Assertions.assertTrue(fromDb.getCompleted());
+        Assertions.assertEquals(1L, fromDb.getVersion());
+    }
+
+    @Test
+    void createTask_RepeatedIdempotencyKey_CreatesOnce() throws Exception {
+        // arrange
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Retried Task");
+        dto.setDescription("Retried Desc");
+        String body = objectMapper.writeValueAsString(dto);
+
+        // act
+        String first = mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String retry = mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        // assert
+        Assertions.assertEquals(objectMapper.readTree(first).get("id"), objectMapper.readTree(retry).get("id"));
+        Assertions.assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    void completeTask_IdempotencyKeyOfAnotherRequest_ReturnsBadRequest() throws Exception {
+        // arrange
+        Task saved = taskRepository.save(Task.builder()
+                .taskId("TSK 1")
+                .title("Task 1")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId())
+                        .header("Idempotency-Key", "complete-1"))
+                .andExpect(status().isOk());
+
+        // act + assert
+        mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId() + 1)
+                        .header("Idempotency-Key", "complete-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key complete-1 was used for a different request"));
     }
 
     @Test
@@ -120,6 +232,79 @@ public class TaskControllerIntegrationTests {
                 .andExpect(jsonPath("$.message").value("Task 9999 not found"));
     }
 
+    @Test
+    void completeTask_InvalidId_ReturnsProblemDetails() throws Exception {
+        // act + assert
+        mockMvc.perform(put("/api/tasks/{id}/complete", 9999L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.type").value("about:blank"))
+                .andExpect(jsonPath("$.title").value("Not Found"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Task 9999 not found"))
+                .andExpect(jsonPath("$.instance").value("/api/tasks/9999/complete"));
+    }
+
+    @Test
+    void conditionalReads_ETagChangesWithTasks() throws Exception {
+        // arrange
+        Task saved = taskRepository.save(Task.builder()
+                .taskId("TSK 77")
+                .title("Cached Task")
+                .description("Cached Description")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        MvcResult first = mockMvc.perform(get("/api/tasks/by-task-id/{taskId}", "TSK 77"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        Assertions.assertEquals(1, first.getResponse().getHeaders("ETag").size());
+        Assertions.assertTrue(etag.startsWith("W/\""), etag);
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks/recent").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", saved.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/by-task-id/{taskId}", "TSK 77").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void searchTasks_CreatedTask_IsFound() throws Exception {
+        // arrange
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Feed the axolotl");
+        dto.setDescription("Twice a week");
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+        taskSearchIndex.refresh();
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks/search").param("q", "axolotl").param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("No of tasks found : 1"))
+                .andExpect(jsonPath("$.entityList[0].title").value("Feed the axolotl"))
+                .andExpect(jsonPath("$.nextPage").doesNotExist());
+    }
+
+    @Test
+    void searchTasks_MissingQuery_ReturnsBadRequest() throws Exception {
+        // act + assert
+        mockMvc.perform(get("/api/tasks/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query cannot be empty"));
+    }
+
     @Test
     void createTask_EmptyTitle_ReturnsBadRequest() throws Exception {
         // arrange
@@ -136,6 +321,21 @@ public class TaskControllerIntegrationTests {
                 .andExpect(jsonPath("$.message", containsString("Title cannot be empty")));
     }
 
+    @Test
+    void createTask_TitleLongerThanColumn_ReturnsBadRequest() throws Exception {
+        // arrange
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("x".repeat(Task.TEXT_LENGTH + 1));
+        dto.setDescription("Some description");
+
+        // act + assert
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Title cannot be longer than 255 characters")));
+    }
+
     @Test
     void createTask_EmptyDescription_ReturnsBadRequest() throws Exception {
         // arrange
@@ -151,4 +351,396 @@ public class TaskControllerIntegrationTests {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.message", containsString("Description cannot be empty")));
     }
+
+    @Test
+    void createTasks_ValidBatch_PersistsAllTasks() throws Exception {
+        // arrange
+        AddTaskDto first = new AddTaskDto();
+        first.setTitle("Batch Task 1");
+        first.setDescription("Batch Description 1");
+
+        AddTaskDto second = new AddTaskDto();
+        second.setTitle("Batch Task 2");
+        second.setDescription("Batch Description 2");
+
+        // act + assert
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("No of tasks created : 2"))
+                .andExpect(jsonPath("$.entityList.length()").value(2))
+                .andExpect(jsonPath("$.entityList[0].id").isNumber())
+                .andExpect(jsonPath("$.entityList[1].title").value("Batch Task 2"));
+
+        Assertions.assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    void createTasks_InvalidItem_ReturnsItemErrorsAndPersistsNothing() throws Exception {
+        // arrange
+        AddTaskDto valid = new AddTaskDto();
+        valid.setTitle("Batch Task");
+        valid.setDescription("Batch Description");
+
+        AddTaskDto invalid = new AddTaskDto();
+        invalid.setTitle("Batch Task");
+        invalid.setDescription(""); // invalid, empty
+
+        // act + assert
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.errors.length()").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("description"))
+                .andExpect(jsonPath("$.errors[0].message").value("Description cannot be empty"));
+
+        Assertions.assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    void completeTasks_ValidIds_ReturnsUpdatedCountAndMissingIds() throws Exception {
+        // arrange
+        Task task = Task.builder()
+                .taskId("TSK 1")
+                .title("To Complete")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        Task saved = taskRepository.save(task);
+
+        BulkCompleteDto dto = new BulkCompleteDto();
+        dto.setIds(List.of(saved.getId(), 9999L));
+
+        // act + assert
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(1))
+                .andExpect(jsonPath("$.missingIds.length()").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(9999));
+
+        Assertions.assertTrue(taskRepository.findById(saved.getId()).orElseThrow().getCompleted());
+    }
+
+    @Test
+    void completeTasks_NoIdsOrDate_ReturnsBadRequest() throws Exception {
+        // act + assert
+        mockMvc.perform(put("/api/tasks/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Provide either ids or createdBefore"));
+    }
+
+    @Test
+    void findTasks_WalksPagesWithCursor() throws Exception {
+        // arrange
+        for (int i = 1; i <= 5; i++) {
+            Task task = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            taskRepository.save(task);
+        }
+
+        // act + assert - first page
+        String firstPage = mockMvc.perform(get("/api/tasks").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList.length()").value(3))
+                .andExpect(jsonPath("$.entityList[0].taskId").value("TSK 5"))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asString();
+
+        // act + assert - last page
+        mockMvc.perform(get("/api/tasks").param("size", "3").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList.length()").value(2))
+                .andExpect(jsonPath("$.entityList[0].taskId").value("TSK 2"))
+                .andExpect(jsonPath("$.entityList[1].taskId").value("TSK 1"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void findTasks_CompletedFilter_ReturnsOnlyCompletedTasks() throws Exception {
+        // arrange
+        for (int i = 1; i <= 4; i++) {
+            Task task = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(i % 2 == 0)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            taskRepository.save(task);
+        }
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks").param("completed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("No of tasks found : 2"))
+                .andExpect(jsonPath("$.entityList[0].taskId").value("TSK 4"))
+                .andExpect(jsonPath("$.entityList[1].taskId").value("TSK 2"));
+    }
+
+    @Test
+    void findTasks_InvalidCursor_ReturnsBadRequest() throws Exception {
+        // act + assert
+        mockMvc.perform(get("/api/tasks").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void exportTasks_Ndjson_StreamsOneTaskPerLine() throws Exception {
+        // arrange
+        for (int i = 1; i <= 3; i++) {
+            Task task = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            taskRepository.save(task);
+        }
+
+        // act
+        MvcResult started = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("tasks.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        // assert
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertTrue(body.endsWith("\n"));
+        Assertions.assertEquals("TSK 1", objectMapper.readTree(lines[0]).get("taskId").asString());
+        Assertions.assertEquals("Desc 3", objectMapper.readTree(lines[2]).get("description").asString());
+    }
+
+    @Test
+    void exportTasks_Csv_StreamsHeaderAndRows() throws Exception {
+        // arrange
+        Task task = Task.builder()
+                .taskId("TSK 1")
+                .title("Task, with comma")
+                .description("Desc 1")
+                .completed(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        taskRepository.save(task);
+
+        // act + assert
+        MvcResult started = mockMvc.perform(get("/api/tasks/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(containsString("id,taskId,title,description,createdAt,completed\n")))
+                .andExpect(content().string(containsString(",TSK 1,\"Task, with comma\",Desc 1,")));
+    }
+
+    @Test
+    void exportTasks_UnknownFormat_ReturnsBadRequest() throws Exception {
+        // act + assert
+        mockMvc.perform(get("/api/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid file format"));
+    }
+
+    @Test
+    void importTasks_Ndjson_ImportsValidRecordsAndReportsTheRest() throws Exception {
+        // arrange
+        String body = """
+                {"title":"Imported 1","description":"Desc 1"}
+                {"title":"","description":"Desc 2"}
+                not json
+                {"title":"Imported 4","description":"Desc 4"}
+                """;
+
+        // act
+        String started = mockMvc.perform(post("/api/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/api/tasks/import/")))
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode report = awaitImport(objectMapper.readTree(started).get("importId").asString());
+
+        // assert
+        Assertions.assertEquals("COMPLETED", report.get("status").asString());
+        Assertions.assertEquals(4, report.get("processedCount").asLong());
+        Assertions.assertEquals(2, report.get("importedCount").asLong());
+        Assertions.assertEquals(2, report.get("failedCount").asLong());
+        Assertions.assertEquals(1, report.get("errors").get(0).get("index").asInt());
+        Assertions.assertEquals("title", report.get("errors").get(0).get("field").asString());
+        Assertions.assertEquals("Malformed record", report.get("errors").get(1).get("message").asString());
+        Assertions.assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    void importTasks_Csv_ReadsQuotedFields() throws Exception {
+        // arrange
+        String body = "title,description\n" +
+                "\"Task, with comma\",\"Line 1\nLine 2\"\n" +
+                "Task 2,Desc 2\n";
+
+        // act
+        String started = mockMvc.perform(post("/api/tasks/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode report = awaitImport(objectMapper.readTree(started).get("importId").asString());
+
+        // assert
+        Assertions.assertEquals("COMPLETED", report.get("status").asString());
+        Assertions.assertEquals(2, report.get("importedCount").asLong());
+        Assertions.assertTrue(taskRepository.findAll().stream()
+                .anyMatch(task -> task.getTitle().equals("Task, with comma")
+                        && task.getDescription().equals("Line 1\nLine 2")));
+    }
+
+    @Test
+    void streamTasks_CreatedAndCompletedTask_ArePushedToSubscriber() throws Exception {
+        // arrange
+        MvcResult stream = mockMvc.perform(get("/api/tasks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Streamed Task");
+        dto.setDescription("Streamed Desc");
+
+        // act
+        String created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(put("/api/tasks/{id}/complete", id))
+                .andExpect(status().isOk());
+
+        // assert
+        String events = awaitStream(stream, "event:completed");
+        Assertions.assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, stream.getResponse().getContentType());
+        Assertions.assertTrue(events.contains("event:created\ndata:{\"type\":\"CREATED\",\"tasks\":[{\"id\":" + id), events);
+        Assertions.assertTrue(events.contains("data:{\"type\":\"COMPLETED\",\"ids\":[" + id + "]}"), events);
+    }
+
+    @Test
+    void findImport_UnknownId_ReturnsNotFound() throws Exception {
+        // act + assert
+        mockMvc.perform(get("/api/tasks/import/unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Import unknown not found"));
+    }
+
+    @Test
+    void byTaskId_FindAndComplete_UseTheBusinessId() throws Exception {
+        // arrange
+        Task task = taskRepository.save(Task.builder()
+                .taskId("TSK 42")
+                .title("Support Ticket")
+                .description("Reported by phone")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks/by-task-id/{taskId}", "TSK 42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(task.getId()))
+                .andExpect(jsonPath("$.title").value("Support Ticket"));
+
+        mockMvc.perform(put("/api/tasks/by-task-id/{taskId}/complete", "TSK 42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(task.getId()))
+                .andExpect(jsonPath("$.completedNow").value(true));
+
+        mockMvc.perform(get("/api/tasks/by-task-id/{taskId}", "TSK 43"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Task TSK 43 not found"));
+    }
+
+    @Test
+    void findArchivedTask_ByIdAndTaskId_ReturnsArchivedTask() throws Exception {
+        // arrange
+        Task task = taskRepository.save(Task.builder()
+                .taskId("TSK ARCHIVE")
+                .title("Archived Task")
+                .description("Archived Desc")
+                .completed(true)
+                .createdAt(LocalDateTime.now().minusYears(1))
+                .build());
+        taskArchiveService.archiveCompletedTasks();
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks/archive/" + task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Archived Task"))
+                .andExpect(jsonPath("$.archivedAt").exists());
+
+        mockMvc.perform(get("/api/tasks/archive").param("taskId", "TSK ARCHIVE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(task.getId()));
+
+        mockMvc.perform(get("/api/tasks/archive/999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Archived task 999999 not found"));
+    }
+
+    // events are written to the open response as they happen
+    private String awaitStream(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    // imports run in the background, poll the status until they finish
+    private JsonNode awaitImport(String importId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String status = mockMvc.perform(get("/api/tasks/import/" + importId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode report = objectMapper.readTree(status);
+            if (!report.get("status").asString().equals("RUNNING") || System.currentTimeMillis() > deadline) {
+                return report;
+            }
+            Thread.sleep(20);
+        }
+    }
 }
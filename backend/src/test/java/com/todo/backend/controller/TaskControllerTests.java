@@ -1,14 +1,28 @@
 package com.todo.backend.controller;
 
+import com.todo.backend.cache.IdempotencyCache;
+import com.todo.backend.cache.TaskVersion;
 import com.todo.backend.dto.AddTaskDto;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import com.todo.backend.exception.TaskImportTooLargeException;
+import com.todo.backend.service.TaskArchiveService;
+import com.todo.backend.service.TaskImportService;
+import com.todo.backend.service.TaskSearchService;
 import com.todo.backend.service.TaskService;
+import com.todo.backend.throttle.TaskConcurrencyLimiter;
+import com.todo.backend.throttle.TaskRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,10 +35,13 @@ import java.util.List;
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TaskController.class)
+@Import({IdempotencyCache.class, TaskVersion.class, TaskRateLimiter.class, TaskConcurrencyLimiter.class})
 public class TaskControllerTests {
 
     @Autowired
@@ -36,6 +53,25 @@ public class TaskControllerTests {
     @MockitoBean
     private TaskService taskService;
 
+    // the web slice has no metrics auto-configuration, TaskExceptionHandler still counts into this one
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private TaskImportService taskImportService;
+
+    @MockitoBean
+    private TaskSearchService taskSearchService;
+
+    @MockitoBean
+    private TaskArchiveService taskArchiveService;
+
     private Task sampleTask;
     private AddTaskDto addTaskDto;
 
@@ -71,14 +107,37 @@ public class TaskControllerTests {
                 .andExpect(jsonPath("$.completed").value(sampleTask.getCompleted()));
     }
 
+    @Test
+    void createTask_RepeatedIdempotencyKey_CallsServiceOnce() throws Exception {
+        Mockito.when(taskService.createTask(Mockito.any(AddTaskDto.class)))
+                .thenReturn(sampleTask);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/tasks")
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(addTaskDto)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(sampleTask.getId()));
+        }
+
+        mockMvc.perform(post("/api/tasks")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addTaskDto)))
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        Mockito.verify(taskService, Mockito.times(1)).createTask(Mockito.any(AddTaskDto.class));
+    }
+
     @Test
     void findRecentTasks_ReturnsListResponse() throws Exception {
-        List<Task> tasks = Arrays.asList(
-                sampleTask,
-                sampleTask.toBuilder().id(2L).taskId("TSK 2").build()
+        List<TaskView> tasks = Arrays.asList(
+                TaskView.from(sampleTask),
+                TaskView.from(sampleTask.toBuilder().id(2L).taskId("TSK 2").build())
         );
 
-        ListResponse<Task> response = new ListResponse<>();
+        ListResponse<TaskView> response = new ListResponse<>();
         response.setMessage("No of tasks found : " + tasks.size());
         response.setEntityList(tasks);
 
@@ -92,6 +151,26 @@ public class TaskControllerTests {
                 .andExpect(jsonPath("$.entityList[1].taskId").value("TSK 2"));
     }
 
+    @Test
+    void findRecentTasks_MatchingETag_ReturnsNotModifiedWithoutReading() throws Exception {
+        ListResponse<TaskView> response = new ListResponse<>();
+        response.setMessage("No of tasks found : 1");
+        response.setEntityList(List.of(TaskView.from(sampleTask)));
+        Mockito.when(taskService.findRecentTasks()).thenReturn(response);
+
+        String etag = mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/recent").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        Mockito.verify(taskService, Mockito.times(1)).findRecentTasks();
+    }
+
     @Test
     void createTask_EmptyTitle_ReturnsBadRequest() throws Exception {
         AddTaskDto dto = new AddTaskDto();
@@ -132,4 +211,17 @@ public class TaskControllerTests {
                 // message may return first validation error (implementation dependent)
                 .andExpect(jsonPath("$.message", containsString("cannot be empty")));
     }
+
+    @Test
+    void importTasks_UploadTooLarge_ReturnsContentTooLarge() throws Exception {
+        Mockito.when(taskImportService.startImport(Mockito.any(), Mockito.any()))
+                .thenThrow(new TaskImportTooLargeException("Import file cannot be larger than 64 bytes"));
+
+        mockMvc.perform(post("/api/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"title\":\"Task 1\",\"description\":\"Desc 1\"}"))
+                .andExpect(status().isContentTooLarge())
+                .andExpect(jsonPath("$.status").value(413))
+                .andExpect(jsonPath("$.message").value("Import file cannot be larger than 64 bytes"));
+    }
 }
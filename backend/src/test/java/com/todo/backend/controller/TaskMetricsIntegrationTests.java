@@ -0,0 +1,59 @@
+package com.todo.backend.controller;
+
+import com.todo.backend.dto.AddTaskDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TaskMetricsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prometheus_AfterRequests_PublishesEndpointServiceRepositoryPoolAndExceptionMetrics() throws Exception {
+        // arrange
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("Metrics Task");
+        dto.setDescription("Metrics Description");
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/999999/complete"))
+                .andExpect(status().isNotFound());
+
+        // act
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // assert
+        Assertions.assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint histograms");
+        Assertions.assertTrue(scrape.matches("(?s).*http_server_requests_seconds_count\\{[^}]*uri=\"/api/tasks/recent\".*"), "endpoint timer");
+        Assertions.assertTrue(scrape.matches("(?s).*task_service_seconds_count\\{[^}]*method=\"createTask\".*"), "service timer");
+        Assertions.assertTrue(scrape.matches("(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*method=\"findMaxId\".*")
+                || scrape.matches("(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*method=\"reserveBlock\".*"), "id allocation queries");
+        Assertions.assertTrue(scrape.matches("(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*method=\"findRecentTasks\".*"), "repository timer");
+        Assertions.assertTrue(scrape.contains("hikaricp_connections_pending{"), "pool saturation");
+        Assertions.assertTrue(scrape.matches("(?s).*task_exceptions_total\\{[^}]*status=\"404\"[^}]*type=\"TaskNotFoundException\".*"), "exception counter");
+    }
+}
@@ -0,0 +1,150 @@
+package com.todo.backend.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TaskEventBroadcasterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // buffer of 4 pending events per subscriber
+    private final TaskEventBroadcaster broadcaster =
+            new TaskEventBroadcaster(meterRegistry, Duration.ofMinutes(30), Duration.ofHours(1), 5, 4);
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_LastEventId_ReplaysMissedEvents() throws Exception {
+        // arrange
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.tasksCompleted(List.of(id));
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // act
+        broadcaster.subscribe("1", emitter);
+
+        // assert
+        Assertions.assertEquals(List.of(2L, 3L), emitter.awaitIds(2));
+        Assertions.assertEquals(List.of(List.of(2L), List.of(3L)),
+                emitter.events.stream().map(TaskEvent::getIds).toList());
+    }
+
+    @Test
+    void subscribe_LastEventIdOutsideHistory_SendsReload() throws Exception {
+        // arrange - the history keeps the last 5 of 8 events
+        for (long id = 1; id <= 8; id++) {
+            broadcaster.tasksCompleted(List.of(id));
+        }
+        RecordingEmitter behind = new RecordingEmitter();
+        RecordingEmitter unknown = new RecordingEmitter();
+
+        // act
+        broadcaster.subscribe("1", behind);
+        broadcaster.subscribe("99", unknown);
+
+        // assert - the reload carries the latest id, so the client resumes from there
+        Assertions.assertEquals(List.of(8L), behind.awaitIds(1));
+        Assertions.assertEquals(TaskEventType.RELOAD, behind.events.getFirst().getType());
+        Assertions.assertEquals(List.of(8L), unknown.awaitIds(1));
+        Assertions.assertEquals(TaskEventType.RELOAD, unknown.events.getFirst().getType());
+    }
+
+    @Test
+    void publish_SlowSubscriber_CoalescesPendingEventsIntoReload() throws Exception {
+        // arrange - the subscriber blocks while writing the first event
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+        broadcaster.subscribe(null, slow);
+        broadcaster.tasksCompleted(List.of(1L));
+        Assertions.assertTrue(slow.sendStarted.await(5, TimeUnit.SECONDS));
+
+        // act - 10 more events while it is stuck, twice more than its buffer holds
+        for (long id = 2; id <= 11; id++) {
+            broadcaster.tasksCompleted(List.of(id));
+        }
+        slow.release.countDown();
+
+        // assert
+        Assertions.assertEquals(List.of(1L, 10L, 11L), slow.awaitIds(3));
+        Assertions.assertEquals(List.of(TaskEventType.COMPLETED, TaskEventType.RELOAD, TaskEventType.COMPLETED),
+                slow.events.stream().map(TaskEvent::getType).toList());
+        Assertions.assertEquals(8, meterRegistry.get("task.stream.coalesced").counter().count());
+    }
+
+    @Test
+    void subscribe_CompletedStream_RemovesSubscriber() throws Exception {
+        // arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(null, emitter);
+        emitter.failSends = true;
+
+        // act - the failed write drops the subscriber
+        broadcaster.tasksChanged();
+
+        // assert
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (broadcaster.getSubscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    // keeps the events instead of writing them, optionally blocking on the first write
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<TaskEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean failSends;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+
+            sendStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof TaskEvent event) {
+                    events.add(event);
+                }
+            }
+        }
+
+        List<Long> awaitIds(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return events.stream().map(TaskEvent::getId).toList();
+        }
+    }
+}
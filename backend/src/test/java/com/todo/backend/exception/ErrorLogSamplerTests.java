@@ -0,0 +1,41 @@
+package com.todo.backend.exception;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ErrorLogSamplerTests {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final ErrorLogSampler sampler = new ErrorLogSampler(2, MINUTE);
+
+    @Test
+    void sample_OverLimit_SuppressesUntilNextInterval() {
+        // arrange
+        Assertions.assertEquals(0, sampler.sample(TaskNotFoundException.class, 0));
+        Assertions.assertEquals(0, sampler.sample(TaskNotFoundException.class, 1));
+
+        // act
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(ErrorLogSampler.SUPPRESSED, sampler.sample(TaskNotFoundException.class, 2));
+        }
+
+        // assert
+        Assertions.assertEquals(5, sampler.sample(TaskNotFoundException.class, MINUTE));
+        Assertions.assertEquals(0, sampler.sample(TaskNotFoundException.class, MINUTE));
+        Assertions.assertEquals(ErrorLogSampler.SUPPRESSED, sampler.sample(TaskNotFoundException.class, MINUTE));
+    }
+
+    @Test
+    void sample_KeepsLimitsPerExceptionType() {
+        // arrange
+        sampler.sample(TaskNotFoundException.class, 0);
+        sampler.sample(TaskNotFoundException.class, 0);
+
+        // act + assert
+        Assertions.assertEquals(ErrorLogSampler.SUPPRESSED, sampler.sample(TaskNotFoundException.class, 0));
+        Assertions.assertEquals(0, sampler.sample(InvalidTaskRequestException.class, 0));
+    }
+}
@@ -0,0 +1,139 @@
+package com.todo.backend.jdbc;
+
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskRepository;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the recent tasks cache with a replica that never catches up, see ReplicaRoutingIntegrationTests
+@SpringBootTest(properties = {
+        "task.recent-cache.enabled=true",
+        "task.datasource.replicas.enabled=true",
+        "task.datasource.replicas.urls=" + ReplicaRoutingIntegrationTests.REPLICA_URL,
+        "task.datasource.replicas.max-lag=5s",
+        "task.datasource.replicas.check-interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaRecentTasksCacheIntegrationTests {
+
+    private static final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource(ReplicaRoutingIntegrationTests.REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private RecentTasksCache recentTasksCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(ReplicaRoutingIntegrationTests.REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/callback/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        taskRepository.deleteAll();
+        recentTasksCache.invalidate();
+        replica.update("DELETE FROM task");
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1", System.currentTimeMillis());
+        dataSource.unwrap(ReplicaRoutingDataSource.class).checkReplicas();
+    }
+
+    @Test
+    void recentTasks_CacheMiss_IsFilledFromPrimary() throws Exception {
+        // arrange - the replica has not seen the new task yet
+        replicaTask(1, "Replica Task");
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addTaskDto("Own Task"))))
+                .andExpect(status().isCreated());
+        long hits = recentTasksCache.getHitCount();
+
+        // act + assert - another client misses the cache, the load must not install the replica's rows
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList[0].title").value("Own Task"));
+
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList[0].title").value("Own Task"));
+
+        Assertions.assertEquals(hits + 1, recentTasksCache.getHitCount());
+    }
+
+    @Test
+    void recentTasks_PinnedClient_SkipsCache() throws Exception {
+        // arrange - the cache is filled, then a task is written through another instance
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("No tasks found"));
+
+        taskRepository.save(Task.builder()
+                .taskId("TSK 2")
+                .title("Other Instance Task")
+                .description("Other Instance Task Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        Cookie lastWrite = new Cookie(ReplicaRoutingFilter.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()));
+
+        // act + assert - other clients keep the cached rows until they expire, the writing client reads the primary
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("No tasks found"));
+
+        mockMvc.perform(get("/api/tasks/recent").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList[0].title").value("Other Instance Task"));
+    }
+
+    private static void replicaTask(long id, String title) {
+        replica.update("INSERT INTO task (id, task_id, title, description, created_at, completed, version) "
+                + "VALUES (?, ?, ?, ?, ?, false, 0)", id, "TSK " + id, title, title + " Desc", LocalDateTime.now());
+    }
+
+    private static AddTaskDto addTaskDto(String title) {
+        AddTaskDto addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle(title);
+        addTaskDto.setDescription(title + " Desc");
+        return addTaskDto;
+    }
+}
@@ -0,0 +1,236 @@
+package com.todo.backend.jdbc;
+
+import com.todo.backend.cache.TaskVersion;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// a second in-memory h2 database stands in for the replica, nothing replicates into it, so a row
+// written to only one of the two databases shows where a read went. the second replica never answers
+@SpringBootTest(properties = {
+        "task.datasource.replicas.enabled=true",
+        "task.datasource.replicas.urls=" + ReplicaRoutingIntegrationTests.REPLICA_URL + ",jdbc:h2:tcp://localhost:1/missing",
+        "task.datasource.replicas.connection-timeout=250ms",
+        "task.datasource.replicas.max-lag=5s",
+        "task.datasource.replicas.check-interval=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaRoutingIntegrationTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskVersion taskVersion;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/callback/h2")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        taskRepository.deleteAll();
+        replica.update("DELETE FROM task");
+        replicaHeartbeat(System.currentTimeMillis());
+        routing().checkReplicas();
+    }
+
+    @Test
+    void checkReplicas_UnreachableReplica_IsSkipped() throws SQLException {
+        // act + assert
+        Assertions.assertEquals(List.of("replica-1"), routing().getUsableReplicas());
+    }
+
+    @Test
+    void start_NotCalled_NoHeartbeatIsWritten() throws Exception {
+        // arrange - the replica database stands in for a primary here
+        replicaHeartbeat(0);
+
+        // act
+        try (ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(REPLICA_URL, "sa", ""), List.of(), Duration.ofSeconds(5), Duration.ofMillis(10))) {
+            Thread.sleep(200);
+            long beforeStart = replicaHeartbeatMillis();
+            routing.start();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (replicaHeartbeatMillis() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // assert - checks wait for start, which runs once flyway has created the table
+            Assertions.assertEquals(0, beforeStart);
+            Assertions.assertNotEquals(0, replicaHeartbeatMillis());
+        }
+    }
+
+    @Test
+    void findRecentTasks_ReadOnlyTransaction_ServedByReplica() {
+        // arrange
+        replicaTask(1, "Replica Task");
+
+        // act
+        Task created = taskService.createTask(addTaskDto("Primary Task"));
+        List<TaskView> recent = taskService.findRecentTasks().getEntityList();
+
+        // assert
+        Assertions.assertEquals(List.of("Replica Task"), recent.stream().map(TaskView::getTitle).toList());
+        Assertions.assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM task WHERE id = ?", Integer.class, created.getId()));
+    }
+
+    @Test
+    void recentTasks_AfterCreate_SameClientReadsFromPrimary() throws Exception {
+        // arrange
+        replicaTask(1, "Replica Task");
+
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addTaskDto("Own Task"))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReplicaRoutingFilter.LAST_WRITE_COOKIE))
+                .andReturn();
+        Cookie lastWrite = created.getResponse().getCookie(ReplicaRoutingFilter.LAST_WRITE_COOKIE);
+
+        // act + assert
+        mockMvc.perform(get("/api/tasks/recent").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList[0].title").value("Own Task"));
+
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityList[0].title").value("Replica Task"));
+    }
+
+    @Test
+    void checkReplicas_ReplicaOverMaxLag_ReadsGoToPrimary() throws SQLException {
+        // arrange
+        replicaTask(1, "Stale Replica Task");
+        taskService.createTask(addTaskDto("Primary Task"));
+        replicaHeartbeat(System.currentTimeMillis() - 60_000);
+
+        // act
+        routing().checkReplicas();
+        List<TaskView> recent = taskService.findRecentTasks().getEntityList();
+
+        // assert
+        Assertions.assertTrue(routing().getUsableReplicas().isEmpty());
+        Assertions.assertEquals(List.of("Primary Task"), recent.stream().map(TaskView::getTitle).toList());
+    }
+
+    @Test
+    void recentTasks_ReplicaBehindLastChange_SendsNoETag() throws Exception {
+        // arrange - the replica was last seen in sync before the create
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addTaskDto("Own Task"))))
+                .andExpect(status().isCreated());
+
+        // act + assert - its rows may predate the version the etag would name
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void recentTasks_ReplicaInSyncAfterLastChange_SendsETag() throws Exception {
+        // arrange
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(addTaskDto("Own Task"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie lastWrite = created.getResponse().getCookie(ReplicaRoutingFilter.LAST_WRITE_COOKIE);
+
+        // act + assert - the writing client reads the primary
+        mockMvc.perform(get("/api/tasks/recent").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+
+        // act + assert - once a check has seen the replica past the change, its reads are labelled too
+        replicaHeartbeat(taskVersion.getChangedAtMillis() + 1);
+        routing().checkReplicas();
+
+        mockMvc.perform(get("/api/tasks/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+    }
+
+    private ReplicaRoutingDataSource routing() throws SQLException {
+        return dataSource.unwrap(ReplicaRoutingDataSource.class);
+    }
+
+    private static long replicaHeartbeatMillis() {
+        return replica.queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+    }
+
+    private static void replicaHeartbeat(long beatMillis) {
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1", beatMillis);
+    }
+
+    private static void replicaTask(long id, String title) {
+        replica.update("INSERT INTO task (id, task_id, title, description, created_at, completed, version) "
+                + "VALUES (?, ?, ?, ?, ?, false, 0)", id, "TSK " + id, title, title + " Desc", LocalDateTime.now());
+    }
+
+    private static AddTaskDto addTaskDto(String title) {
+        AddTaskDto addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle(title);
+        addTaskDto.setDescription(title + " Desc");
+        return addTaskDto;
+    }
+}
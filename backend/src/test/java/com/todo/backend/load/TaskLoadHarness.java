@@ -0,0 +1,261 @@
+package com.todo.backend.load;
+
+import com.todo.backend.BackendApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// drives a create / recent / complete mix at a fixed arrival rate and checks p99 budgets per endpoint.
+// latency is measured from the time a request was due, not from when it was sent, so a stalled
+// server is charged for every request that queued behind it (no coordinated omission).
+//
+// run with: mvn -Pload test
+// settings (system properties, defaults in brackets):
+//   load.rate [200] requests per second, load.warmup-seconds [10], load.duration-seconds [30]
+//   load.mix.create [20], load.mix.recent [70], load.mix.complete [10] relative weights
+//   load.p99.create-ms [50], load.p99.recent-ms [20], load.p99.complete-ms [50]
+//   load.datasource.url, load.datasource.username, load.datasource.password to run against mysql instead of h2
+@EnabledIfSystemProperty(named = "load", matches = "true")
+public class TaskLoadHarness {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SEED_TASKS = 1_000;
+
+    enum Endpoint { CREATE, RECENT, COMPLETE }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<Long> openTaskIds = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void mixedWorkload_StaysWithinP99Budgets() throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        mix.put(Endpoint.CREATE, Integer.getInteger("load.mix.create", 20));
+        mix.put(Endpoint.RECENT, Integer.getInteger("load.mix.recent", 70));
+        mix.put(Endpoint.COMPLETE, Integer.getInteger("load.mix.complete", 10));
+
+        Map<Endpoint, Long> budgetsMillis = new EnumMap<>(Endpoint.class);
+        budgetsMillis.put(Endpoint.CREATE, Long.getLong("load.p99.create-ms", 50));
+        budgetsMillis.put(Endpoint.RECENT, Long.getLong("load.p99.recent-ms", 20));
+        budgetsMillis.put(Endpoint.COMPLETE, Long.getLong("load.p99.complete-ms", 50));
+
+        try (ConfigurableApplicationContext context = startBackend();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            HttpClient client = HttpClient.newBuilder().executor(executor).build();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks";
+            seedTasks(client, baseUrl);
+
+            // warm up, then measure with fresh histograms
+            run(client, baseUrl, executor, rate, warmupSeconds, mix, newStats());
+            Map<Endpoint, EndpointStats> stats = newStats();
+            run(client, baseUrl, executor, rate, durationSeconds, mix, stats);
+
+            List<String> violations = report(stats, budgetsMillis);
+            Assertions.assertTrue(violations.isEmpty(), String.join("\n", violations));
+        }
+    }
+
+    // h2 from the test profile unless a database url is given
+    private ConfigurableApplicationContext startBackend() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--task.sql.log-sample-rate=0"));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(BackendApplication.class);
+        String url = System.getProperty("load.datasource.url");
+        if (url == null) {
+            builder.profiles("test");
+            args.add("--task.recent-cache.enabled=true");
+        } else {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("load.datasource.username", "root"));
+            args.add("--spring.datasource.password=" + System.getProperty("load.datasource.password", "root"));
+        }
+
+        return builder.run(args.toArray(String[]::new));
+    }
+
+    private void seedTasks(HttpClient client, String baseUrl) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < SEED_TASKS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"title\":\"Seed Task ").append(i)
+                    .append("\",\"description\":\"Seed Desc ").append(i).append("\"}");
+        }
+        body.append("]");
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Assertions.assertEquals(201, response.statusCode(), response.body());
+
+        for (JsonNode task : objectMapper.readTree(response.body()).get("entityList")) {
+            openTaskIds.add(task.get("id").asLong());
+        }
+    }
+
+    // requests are due at fixed intervals and each runs on its own virtual thread,
+    // so a slow response never delays the next send
+    private void run(HttpClient client, String baseUrl, ExecutorService executor, int rate, int seconds,
+                     Map<Endpoint, Integer> mix, Map<Endpoint, EndpointStats> stats) throws InterruptedException {
+
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Random random = new Random(42);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = (long) rate * seconds;
+        long start = System.nanoTime();
+        List<Future<?>> inFlight = new ArrayList<>();
+
+        for (long i = 0; i < requests; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = pick(random.nextInt(totalWeight), mix);
+            inFlight.add(executor.submit(() -> send(client, baseUrl, endpoint, due, stats.get(endpoint))));
+        }
+
+        for (Future<?> future : inFlight) {
+            try {
+                future.get();
+            } catch (ExecutionException ignored) {
+                // counted as an error by send
+            }
+        }
+    }
+
+    private void send(HttpClient client, String baseUrl, Endpoint endpoint, long dueNanos, EndpointStats stats) {
+        try {
+            HttpRequest request = switch (endpoint) {
+                case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load Task\",\"description\":\"Load Desc\"}"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+                case RECENT -> HttpRequest.newBuilder(URI.create(baseUrl + "/recent"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .build();
+                case COMPLETE -> {
+                    Long id = openTaskIds.poll();
+                    yield HttpRequest.newBuilder(URI.create(baseUrl + "/" + (id == null ? 1 : id) + "/complete"))
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .timeout(REQUEST_TIMEOUT)
+                            .build();
+                }
+            };
+
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.histogram.recordValue(Math.min(System.nanoTime() - dueNanos, HIGHEST_TRACKABLE_NANOS));
+
+            if (response.statusCode() >= 400 && !(endpoint == Endpoint.COMPLETE && response.statusCode() == 404)) {
+                stats.errors.incrementAndGet();
+            } else if (endpoint == Endpoint.CREATE) {
+                openTaskIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+            }
+        } catch (Exception exc) {
+            stats.histogram.recordValue(Math.min(System.nanoTime() - dueNanos, HIGHEST_TRACKABLE_NANOS));
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    private static Endpoint pick(int roll, Map<Endpoint, Integer> mix) {
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Endpoint.RECENT;
+    }
+
+    // prints percentiles, writes one .hgrm file per endpoint and returns the broken budgets
+    private List<String> report(Map<Endpoint, EndpointStats> stats, Map<Endpoint, Long> budgetsMillis) throws Exception {
+        Path directory = Path.of("target", "load");
+        Files.createDirectories(directory);
+        List<String> violations = new ArrayList<>();
+
+        System.out.printf("%-9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = stats.get(endpoint).histogram;
+            long errors = stats.get(endpoint).errors.get();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+
+            double p99Millis = millis(histogram.getValueAtPercentile(99));
+            System.out.printf("%-9s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.name().toLowerCase(), histogram.getTotalCount(), errors,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    p99Millis, millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1_000_000.0);
+            }
+
+            if (p99Millis > budgetsMillis.get(endpoint)) {
+                violations.add(String.format("%s p99 %.2f ms is over the %d ms budget",
+                        endpoint.name().toLowerCase(), p99Millis, budgetsMillis.get(endpoint)));
+            }
+            if (errors > 0) {
+                violations.add(endpoint.name().toLowerCase() + " had " + errors + " failed requests");
+            }
+        }
+
+        return violations;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<Endpoint, EndpointStats> newStats() {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        return stats;
+    }
+
+    private static class EndpointStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,33 @@
+package com.todo.backend.outbox;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// keeps published events for assertions, can be told to reject the next batch
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+    private volatile boolean failNext;
+
+    @Override
+    public void publish(List<OutboxEvent> batch) throws IOException {
+        if (failNext) {
+            failNext = false;
+            throw new IOException("broker unavailable");
+        }
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return events;
+    }
+
+    public void failNext() {
+        failNext = true;
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
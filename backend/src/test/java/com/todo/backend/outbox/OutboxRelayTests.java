@@ -0,0 +1,183 @@
+package com.todo.backend.outbox;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import com.todo.backend.util.TaskIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// the background relay is off in the test profile, every test drains the outbox itself.
+// a batch size of 2 makes the ordering cross batch boundaries
+@SpringBootTest(properties = {"task.outbox.publisher=memory", "task.outbox.batch-size=2"})
+@ActiveProfiles("test")
+@Import(OutboxRelayTests.PublisherConfig.class)
+public class OutboxRelayTests {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxPublisher publisher;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class PublisherConfig {
+
+        @Bean
+        InMemoryOutboxPublisher inMemoryOutboxPublisher() {
+            return new InMemoryOutboxPublisher();
+        }
+    }
+
+    @BeforeEach
+    void cleanDb() {
+        jdbcTemplate.update("DELETE FROM task_outbox");
+        taskRepository.deleteAll();
+        publisher.clear();
+    }
+
+    @Test
+    void drain_CreatedAndCompletedTasks_PublishesEventsInOrder() throws IOException {
+        // arrange
+        long first = taskService.createTask(addTaskDto("First")).getId();
+        List<Long> batch = taskService.createTasks(List.of(addTaskDto("Second"), addTaskDto("Third")))
+                .getEntityList().stream().map(task -> task.getId()).toList();
+        taskService.completeTask(first);
+        taskService.completeTask(first);
+
+        BulkCompleteDto bulkCompleteDto = new BulkCompleteDto();
+        bulkCompleteDto.setIds(List.of(batch.getFirst(), first, 999_999L));
+        taskService.completeTasks(bulkCompleteDto);
+
+        // act
+        drainAll();
+
+        // assert - a second completion of the same task and unknown ids write nothing
+        Assertions.assertEquals(List.of(
+                        "TASK_CREATED " + first,
+                        "TASK_CREATED " + batch.get(0),
+                        "TASK_CREATED " + batch.get(1),
+                        "TASK_COMPLETED " + first,
+                        "TASK_COMPLETED " + batch.get(0)),
+                describe(publisher.getEvents()));
+        Assertions.assertTrue(publisher.getEvents().getFirst().getPayload().contains("\"title\":\"First\""));
+        Assertions.assertEquals(0, outboxSize());
+    }
+
+    @Test
+    void drain_PublisherFails_KeepsEventsForRetry() throws IOException {
+        // arrange
+        long id = taskService.createTask(addTaskDto("Retried")).getId();
+        publisher.failNext();
+
+        // act + assert - the failed batch stays in the outbox and goes out with the next drain
+        Assertions.assertThrows(IOException.class, () -> outboxRelay.drain());
+        Assertions.assertEquals(1, outboxSize());
+
+        drainAll();
+
+        Assertions.assertEquals(List.of("TASK_CREATED " + id), describe(publisher.getEvents()));
+        Assertions.assertEquals(0, outboxSize());
+    }
+
+    @Test
+    void createTask_RolledBack_WritesNoEvent() throws IOException {
+        // act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskService.createTask(addTaskDto("Rolled Back"));
+            status.setRollbackOnly();
+        });
+
+        // assert
+        Assertions.assertEquals(0, outboxSize());
+        Assertions.assertEquals(0, outboxRelay.drain());
+        Assertions.assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    void drain_BulkCompletionByDate_PublishesOnlyTasksThatWereOpen() throws IOException {
+        // arrange - written through the repository, so only the completion writes events
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> openIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            openIds.add(saveTask(now.minusDays(i), false));
+        }
+        saveTask(now.minusDays(4), true);
+        saveTask(now, false);
+
+        BulkCompleteDto bulkCompleteDto = new BulkCompleteDto();
+        bulkCompleteDto.setCreatedBefore(now.minusHours(1));
+
+        // act
+        taskService.completeTasks(bulkCompleteDto);
+        drainAll();
+
+        // assert
+        Assertions.assertEquals(openIds.stream().map(id -> "TASK_COMPLETED " + id).toList(),
+                describe(publisher.getEvents()));
+    }
+
+    private void drainAll() throws IOException {
+        while (outboxRelay.drain() > 0) {
+            // next batch
+        }
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_outbox", Integer.class);
+    }
+
+    private long saveTask(LocalDateTime createdAt, boolean completed) {
+        return taskRepository.save(Task.builder()
+                .id(taskIdGenerator.nextPrimaryKey())
+                .taskId(taskIdGenerator.generate())
+                .title("Task")
+                .description("Desc")
+                .completed(completed)
+                .createdAt(createdAt)
+                .build()).getId();
+    }
+
+    private static List<String> describe(List<OutboxEvent> events) {
+        return events.stream().map(event -> event.getType() + " " + event.getAggregateId()).toList();
+    }
+
+    private static AddTaskDto addTaskDto(String title) {
+        AddTaskDto addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle(title);
+        addTaskDto.setDescription(title + " Desc");
+        return addTaskDto;
+    }
+}
@@ -0,0 +1,95 @@
+package com.todo.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// V7 on a database written by the old MAX(id) + 1 generator, which could hand a task id out twice
+public class TaskIdMigrationTests {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+
+    @Test
+    void migrate_DuplicateTaskIds_RenumbersAllButTheOldest() {
+        // arrange - no task id sequence yet, it is seeded after the highest id
+        migrate("6");
+        insertTasks("TSK 1", "TSK 2", "TSK 2", "TSK 2");
+
+        // act
+        migrate("7");
+
+        // assert
+        Assertions.assertEquals(List.of("TSK 1", "TSK 2", "TSK 5", "TSK 6"), taskIds());
+        Assertions.assertEquals(7L, nextTaskId());
+    }
+
+    @Test
+    void migrate_DuplicateTaskIds_TakesFreshIdsFromTheSequence() {
+        // arrange
+        migrate("6");
+        jdbcTemplate.update("INSERT INTO task_sequence (name, next_val) VALUES ('task', 100)");
+        insertTasks("TSK 1", "TSK 1", "TSK 3");
+
+        // act
+        migrate("7");
+
+        // assert
+        Assertions.assertEquals(List.of("TSK 1", "TSK 100", "TSK 3"), taskIds());
+        Assertions.assertEquals(101L, nextTaskId());
+    }
+
+    @Test
+    void migrate_BaselinedDatabase_CreatesTaskSequence() {
+        // arrange - only the task table, as ddl-auto created it before flyway
+        jdbcTemplate.execute("CREATE TABLE task (id BIGINT NOT NULL AUTO_INCREMENT, task_id VARCHAR(255) NOT NULL, "
+                + "title VARCHAR(255) NOT NULL, description VARCHAR(255), created_at DATETIME(6) NOT NULL, "
+                + "completed BOOLEAN NOT NULL, PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO task (task_id, title, description, created_at, completed) "
+                + "VALUES ('TSK 1', 'Task 1', null, ?, false), ('TSK 1', 'Task 2', null, ?, false)",
+                LocalDateTime.now(), LocalDateTime.now());
+
+        // act
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/callback/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // assert
+        Assertions.assertEquals(List.of("TSK 1", "TSK 3"), taskIds());
+        Assertions.assertEquals(4L, nextTaskId());
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/callback/h2")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private void insertTasks(String... taskIds) {
+        for (int i = 0; i < taskIds.length; i++) {
+            jdbcTemplate.update("INSERT INTO task (id, task_id, title, description, created_at, completed, version) "
+                    + "VALUES (?, ?, ?, ?, ?, false, 0)", i + 1, taskIds[i], "Task " + (i + 1), null, LocalDateTime.now());
+        }
+    }
+
+    private List<String> taskIds() {
+        return jdbcTemplate.queryForList("SELECT task_id FROM task ORDER BY id", String.class);
+    }
+
+    private long nextTaskId() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM task_sequence WHERE name = 'task'", Long.class);
+    }
+}
@@ -1,23 +1,60 @@
 package com.todo.backend.repository;
 
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 
+import javax.sql.DataSource;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
 public class TaskRepositoryTests {
 
+    // every statement sent through the datasource, so plans are checked on the sql hibernate generates
+    private static final List<QueryInfo> STATEMENTS = new CopyOnWriteArrayList<>();
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor statementCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .afterQuery((execInfo, queryInfoList) -> STATEMENTS.addAll(queryInfoList))
+                            .build();
+                }
+            };
+        }
+    }
+
     @Test
     public void TaskRepository_SavedTaskNotNull(){
 
@@ -55,7 +92,7 @@ public class TaskRepositoryTests {
         }
 
         // act
-        List<Task> recentTasks = taskRepository.findRecentTasks();
+        List<TaskView> recentTasks = taskRepository.findRecentTasks();
 
         // assert - get 5 values
         Assertions.assertEquals(5, recentTasks.size());
@@ -69,4 +106,64 @@ public class TaskRepositoryTests {
         }
     }
 
+    @Test
+    public void TaskRepository_FindRecentTasks_UsesCompletedIdIndex() {
+
+        // act
+        String plan = explain(() -> taskRepository.findRecentTasks());
+
+        // assert - the open task listing must not fall back to a table scan
+        Assertions.assertTrue(plan.toLowerCase().contains("idx_task_completed_id"), plan);
+    }
+
+    @Test
+    public void TaskRepository_CompleteTasksCreatedBefore_UsesCompletedCreatedAtIndex() {
+
+        // act
+        String plan = explain(() -> taskRepository.completeTasksCreatedBefore(LocalDateTime.now()));
+
+        // assert
+        Assertions.assertTrue(plan.toLowerCase().contains("idx_task_completed_created_at"), plan);
+    }
+
+    @Test
+    public void TaskRepository_FindMaxId_ReturnsHighestId() {
+
+        // arrange
+        Long lastId = null;
+        for (int i = 1; i <= 3; i++) {
+            Task task = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Test " + i)
+                    .completed(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+
+            lastId = taskRepository.save(task).getId();
+        }
+
+        // act + assert
+        Assertions.assertEquals(lastId, taskRepository.findMaxId().orElseThrow());
+    }
+
+    // plan of the one statement the call sends, explained with the values it was bound to
+    private String explain(Runnable call) {
+        STATEMENTS.clear();
+        call.run();
+        Assertions.assertEquals(1, STATEMENTS.size(), () -> STATEMENTS.stream().map(QueryInfo::getQuery).toList().toString());
+
+        QueryInfo statement = STATEMENTS.getFirst();
+        Query explain = entityManager.createNativeQuery("EXPLAIN " + statement.getQuery());
+        if (!statement.getParametersList().isEmpty()) {
+            statement.getParametersList().getFirst().stream()
+                    .sorted(Comparator.comparingInt(parameter -> (Integer) parameter.getArgs()[0]))
+                    .forEach(parameter -> explain.setParameter((Integer) parameter.getArgs()[0], value(parameter)));
+        }
+        return String.valueOf(explain.getSingleResult());
+    }
+
+    private static Object value(ParameterSetOperation parameter) {
+        return ParameterSetOperation.isSetNullParameterOperation(parameter) ? null : parameter.getArgs()[1];
+    }
 }
@@ -0,0 +1,156 @@
+package com.todo.backend.search;
+
+import com.todo.backend.dto.TaskView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TaskSearchIndexTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+    private final TaskSearchIndex index = new TaskSearchIndex("", Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    public TaskSearchIndexTests() throws IOException {
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void search_TitleMatch_RanksAboveDescriptionMatch() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(
+                task(1, "Buy milk", "on the way to the garage", NOW),
+                task(2, "Fix the garage door", "hinges squeak", NOW),
+                task(3, "Call the plumber", "kitchen sink", NOW)));
+
+        // act
+        index.refresh();
+        List<TaskView> hits = index.search("garage", null, 0, 10);
+
+        // assert
+        Assertions.assertEquals(List.of(2L, 1L), ids(hits));
+        Assertions.assertEquals("hinges squeak", hits.getFirst().getDescription());
+        Assertions.assertEquals(NOW, hits.getFirst().getCreatedAt());
+    }
+
+    @Test
+    void search_EveryWordMustMatch() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(
+                task(1, "Paint the fence", "white paint", NOW),
+                task(2, "Paint the kitchen", "blue", NOW)));
+        index.refresh();
+
+        // act + assert
+        Assertions.assertEquals(List.of(2L), ids(index.search("kitchen paint", null, 0, 10)));
+    }
+
+    @Test
+    void tasksCompleted_CompletedFilter_ReturnsOnlyMatchingState() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(
+                task(1, "Report draft", "first", NOW),
+                task(2, "Report review", "second", NOW)));
+
+        // act
+        index.tasksCompleted(List.of(1L, 99L));
+        index.refresh();
+
+        // assert
+        Assertions.assertEquals(List.of(1L), ids(index.search("report", true, 0, 10)));
+        Assertions.assertEquals(List.of(2L), ids(index.search("report", false, 0, 10)));
+        Assertions.assertEquals(2, index.size());
+    }
+
+    @Test
+    void tasksCompletedBefore_CompletesOnlyOlderOpenTasks() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(
+                task(1, "Invoice one", "old", NOW.minusDays(3)),
+                task(2, "Invoice two", "old", NOW.minusDays(2)),
+                task(3, "Invoice three", "new", NOW)));
+
+        // act
+        index.tasksCompletedBefore(NOW.minusDays(1));
+        index.refresh();
+
+        // assert
+        Assertions.assertEquals(List.of(3L), ids(index.search("invoice", false, 0, 10)));
+    }
+
+    @Test
+    void search_Offset_ReturnsLaterHits() throws IOException {
+        // arrange - equal scores rank newest first
+        index.tasksCreated(List.of(
+                task(1, "Chore", "a", NOW),
+                task(2, "Chore", "b", NOW),
+                task(3, "Chore", "c", NOW)));
+        index.refresh();
+
+        // act + assert
+        Assertions.assertEquals(List.of(3L, 2L), ids(index.search("chore", null, 0, 2)));
+        Assertions.assertEquals(List.of(1L), ids(index.search("chore", null, 2, 2)));
+    }
+
+    @Test
+    void rebuild_ChangeWhileRebuilding_IsNotLost() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(task(7, "Stale", "removed by the rebuild", NOW)));
+
+        // act - the task is completed after the rows were read as open
+        long count = index.rebuild(() -> {
+            index.tasksCompleted(List.of(1L));
+            return Stream.of(task(1, "Water plants", "balcony", NOW));
+        });
+        index.refresh();
+
+        // assert
+        Assertions.assertEquals(1, count);
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertEquals(List.of(1L), ids(index.search("plants", true, 0, 10)));
+        Assertions.assertTrue(index.search("stale", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void tasksCreated_BeforeRefresh_IsNotSearchableYet() throws IOException {
+        // arrange
+        index.tasksCreated(List.of(task(1, "Sharpen knives", "kitchen", NOW)));
+
+        // act + assert - a write only reaches the index writer, the reader is reopened on the interval
+        Assertions.assertTrue(index.search("knives", null, 0, 10).isEmpty());
+        index.refresh();
+        Assertions.assertEquals(List.of(1L), ids(index.search("knives", null, 0, 10)));
+    }
+
+    @Test
+    void tasksCompleted_RightAfterCreate_FindsTheNewTask() throws IOException {
+        // arrange - no refresh in between, the completion runs after one
+        index.tasksCreated(List.of(task(1, "Return books", "library", NOW)));
+
+        // act
+        index.tasksCompleted(List.of(1L));
+        index.refresh();
+
+        // assert
+        Assertions.assertEquals(List.of(1L), ids(index.search("books", true, 0, 10)));
+        Assertions.assertTrue(index.search("books", false, 0, 10).isEmpty());
+    }
+
+    private static TaskView task(long id, String title, String description, LocalDateTime createdAt) {
+        return new TaskView(id, "TSK " + id, title, description, createdAt, false);
+    }
+
+    private static List<Long> ids(List<TaskView> tasks) {
+        return tasks.stream().map(TaskView::getId).toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dto.ArchivedTask;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
+import com.todo.backend.dto.CompleteResponse;
+import com.todo.backend.entity.Task;
+import com.todo.backend.exception.TaskNotFoundException;
+import com.todo.backend.repository.TaskRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// small batches, so a pass over a handful of tasks already runs several of them
+@SpringBootTest(properties = {
+        "task.archive.min-age=1d",
+        "task.archive.batch-size=2",
+        "task.archive.batch-pause=0ms"})
+@ActiveProfiles("test")
+public class TaskArchiveIntegrationTests {
+
+    private static final LocalDateTime OLD = LocalDateTime.now().minusDays(10);
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanDb() {
+        taskRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM task_archive");
+    }
+
+    @Test
+    void archiveCompletedTasks_MovesOnlyOldCompletedTasks() throws InterruptedException {
+        // arrange
+        List<Task> archivable = List.of(
+                save("Old Done 1", true, OLD), save("Old Done 2", true, OLD), save("Old Done 3", true, OLD));
+        Task oldOpen = save("Old Open", false, OLD);
+        Task recentDone = save("Recent Done", true, LocalDateTime.now());
+
+        // act
+        int archived = taskArchiveService.archiveCompletedTasks();
+
+        // assert
+        Assertions.assertEquals(3, archived);
+        Assertions.assertEquals(List.of(oldOpen.getId(), recentDone.getId()),
+                taskRepository.findAll().stream().map(Task::getId).sorted().toList());
+
+        ArchivedTask first = taskArchiveService.findArchivedTask(archivable.getFirst().getId());
+        Assertions.assertEquals("Old Done 1", first.getTitle());
+        Assertions.assertEquals(archivable.getFirst().getTaskId(), first.getTaskId());
+        Assertions.assertNotNull(first.getArchivedAt());
+        Assertions.assertEquals(archivable.get(2).getId(),
+                taskArchiveService.findArchivedTaskByTaskId(archivable.get(2).getTaskId()).getId());
+    }
+
+    @Test
+    void archiveCompletedTasks_RowClaimedByAnotherPass_IsSkipped() throws Exception {
+        // arrange - another instance's pass holds the oldest row
+        Task claimed = save("Old Done 1", true, OLD.minusDays(1));
+        Task free1 = save("Old Done 2", true, OLD);
+        Task free2 = save("Old Done 3", true, OLD);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherPass = Thread.ofPlatform().start(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM task WHERE id = ? FOR UPDATE", Long.class, claimed.getId());
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assertions.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // act
+        int archived;
+        try {
+            archived = taskArchiveService.archiveCompletedTasks();
+        } finally {
+            release.countDown();
+            otherPass.join();
+        }
+
+        // assert - no wait on the lock, no duplicate key in task_archive
+        Assertions.assertEquals(2, archived);
+        Assertions.assertTrue(taskRepository.existsById(claimed.getId()));
+        Assertions.assertEquals(List.of(free1.getId(), free2.getId()),
+                jdbcTemplate.queryForList("SELECT id FROM task_archive ORDER BY id", Long.class));
+    }
+
+    @Test
+    void completeTasks_ArchivedTasks_AreAlreadyCompletedNotMissing() throws InterruptedException {
+        // arrange
+        Task archivedTask = save("Archived", true, OLD);
+        taskArchiveService.archiveCompletedTasks();
+
+        BulkCompleteDto bulkCompleteDto = new BulkCompleteDto();
+        bulkCompleteDto.setIds(List.of(archivedTask.getId(), 999_999L));
+
+        // act
+        CompleteResponse single = taskService.completeTask(archivedTask.getId());
+        BulkCompleteResponse bulk = taskService.completeTasks(bulkCompleteDto);
+
+        // assert
+        Assertions.assertEquals("Task was already completed", single.getMessage());
+        Assertions.assertEquals(0, bulk.getUpdatedCount());
+        Assertions.assertEquals(List.of(999_999L), bulk.getMissingIds());
+    }
+
+    @Test
+    void findArchivedTaskByTaskId_UnknownTaskId_ThrowsException() {
+        // act
+        TaskNotFoundException exc = Assertions.assertThrows(TaskNotFoundException.class,
+                () -> taskArchiveService.findArchivedTaskByTaskId("TSK 404"));
+
+        // assert
+        Assertions.assertEquals("Archived task TSK 404 not found", exc.getMessage());
+    }
+
+    private Task save(String title, boolean completed, LocalDateTime createdAt) {
+        return taskRepository.save(Task.builder()
+                .taskId("TSK " + title)
+                .title(title)
+                .description(title + " Desc")
+                .completed(completed)
+                .createdAt(createdAt)
+                .build());
+    }
+}
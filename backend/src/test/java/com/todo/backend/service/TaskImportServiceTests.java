@@ -0,0 +1,106 @@
+package com.todo.backend.service;
+
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.cache.TaskVersion;
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskImportResponse;
+import com.todo.backend.event.TaskEventBroadcaster;
+import com.todo.backend.exception.TaskImportTooLargeException;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskImportRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.service.impl.TaskImportServiceImpl;
+import com.todo.backend.util.TaskIdGenerator;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskImportServiceTests {
+
+    @Mock
+    private TaskImportRepository taskImportRepository;
+
+    @Mock
+    private TaskIdGenerator taskIdGenerator;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private RecentTasksCache recentTasksCache;
+
+    @Mock
+    private TaskVersion taskVersion;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Mock
+    private TaskOutbox taskOutbox;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskImportServiceImpl taskImportService;
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportServiceImpl(taskImportRepository, taskIdGenerator, validator,
+                recentTasksCache, taskVersion, taskEventBroadcaster, taskOutbox, taskSearchIndex,
+                transactionManager, new ObjectMapper(), 1000, 4, 1, DataSize.ofBytes(64));
+    }
+
+    @Test
+    public void TaskImportService_StartImport_ReaderThrows_FailsImport() throws Exception {
+        // arrange
+        Mockito.when(validator.validate(Mockito.any(AddTaskDto.class)))
+                .thenThrow(new IllegalStateException("Validator unavailable"));
+        byte[] file = "{\"title\":\"Task 1\",\"description\":\"Desc 1\"}\n".getBytes(StandardCharsets.UTF_8);
+
+        // act
+        TaskImportResponse started = taskImportService.startImport(TaskFileFormat.NDJSON, new ByteArrayInputStream(file));
+        TaskImportResponse finished = awaitImport(started.getImportId());
+
+        // assert
+        Assertions.assertEquals("FAILED", finished.getStatus());
+        Assertions.assertEquals("Import failed: Validator unavailable", finished.getMessage());
+        Mockito.verifyNoInteractions(taskImportRepository);
+    }
+
+    @Test
+    public void TaskImportService_StartImport_OverMaxBytes_RefusesUpload() {
+        // arrange
+        byte[] file = ("{\"title\":\"Task 1\",\"description\":\"" + "x".repeat(64) + "\"}\n").getBytes(StandardCharsets.UTF_8);
+
+        // act + assert
+        Assertions.assertThrows(TaskImportTooLargeException.class,
+                () -> taskImportService.startImport(TaskFileFormat.NDJSON, new ByteArrayInputStream(file)));
+        Mockito.verifyNoInteractions(validator, taskImportRepository);
+    }
+
+    private TaskImportResponse awaitImport(String importId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        TaskImportResponse response = taskImportService.findImport(importId);
+        while ("RUNNING".equals(response.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            response = taskImportService.findImport(importId);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,157 @@
+package com.todo.backend.service;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.TaskIndexResponse;
+import com.todo.backend.dto.TaskSearchRequest;
+import com.todo.backend.dto.TaskSearchResponse;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.exception.InvalidTaskRequestException;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.search.TaskSearchIndex;
+import com.todo.backend.util.TaskIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// writes go through the service and commit, so the index is updated the way it is in production
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskSearchIntegrationTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void cleanDb() throws IOException {
+        taskRepository.deleteAll();
+        taskSearchService.rebuildIndex();
+    }
+
+    @Test
+    void searchTasks_CreatedAndCompletedThroughService_IndexFollows() throws IOException {
+        // arrange
+        long completedId = taskService.createTask(addTaskDto("Renew passport", "photos and form")).getId();
+        taskService.createTasks(List.of(
+                addTaskDto("Book flights", "for the passport trip"),
+                addTaskDto("Pack bags", "sunscreen")));
+
+        // act
+        taskService.completeTask(completedId);
+
+        // assert
+        Assertions.assertEquals(List.of("Renew passport", "Book flights"), titles(search("passport", null, null)));
+        Assertions.assertEquals(List.of("Book flights"), titles(search("passport", false, null)));
+        Assertions.assertEquals(List.of("Renew passport"), titles(search("passport", true, null)));
+    }
+
+    @Test
+    void searchTasks_BulkCompletionByDate_UpdatesIndex() throws IOException {
+        // arrange
+        taskService.createTask(addTaskDto("Weekly review", "notes"));
+
+        BulkCompleteDto bulkCompleteDto = new BulkCompleteDto();
+        bulkCompleteDto.setCreatedBefore(LocalDateTime.now().plusMinutes(1));
+
+        // act
+        taskService.completeTasks(bulkCompleteDto);
+
+        // assert
+        Assertions.assertTrue(search("weekly", false, null).getEntityList().isEmpty());
+        Assertions.assertEquals(1, search("weekly", true, null).getEntityList().size());
+    }
+
+    @Test
+    void searchTasks_MoreHitsThanPageSize_ReturnsNextPage() throws IOException {
+        // arrange
+        List<AddTaskDto> dtos = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            dtos.add(addTaskDto("Errand " + i, "town"));
+        }
+        taskService.createTasks(dtos);
+
+        // act
+        TaskSearchResponse first = search("errand", null, null);
+        TaskSearchResponse last = search("errand", null, 1);
+
+        // assert
+        Assertions.assertEquals(20, first.getEntityList().size());
+        Assertions.assertEquals(1, first.getNextPage());
+        Assertions.assertEquals(5, last.getEntityList().size());
+        Assertions.assertNull(last.getNextPage());
+        Assertions.assertEquals("No of tasks found : 5", last.getMessage());
+    }
+
+    @Test
+    void rebuildIndex_RowsWrittenAroundService_BecomeSearchable() throws IOException {
+        // arrange
+        taskRepository.save(Task.builder()
+                .id(taskIdGenerator.nextPrimaryKey())
+                .taskId(taskIdGenerator.generate())
+                .title("Restored from backup")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        Assertions.assertTrue(search("backup", null, null).getEntityList().isEmpty());
+
+        // act
+        TaskIndexResponse response = taskSearchService.rebuildIndex();
+
+        // assert
+        Assertions.assertEquals(1, response.getIndexedCount());
+        Assertions.assertEquals("No of tasks indexed : 1", response.getMessage());
+        Assertions.assertEquals(List.of("Restored from backup"), titles(search("backup", null, null)));
+    }
+
+    @Test
+    void searchTasks_BlankQuery_ThrowsException() {
+        // act + assert
+        InvalidTaskRequestException ex = Assertions.assertThrows(
+                InvalidTaskRequestException.class,
+                () -> search(" ", null, null));
+
+        Assertions.assertEquals("Search query cannot be empty", ex.getMessage());
+    }
+
+    private TaskSearchResponse search(String q, Boolean completed, Integer page) throws IOException {
+        taskSearchIndex.refresh();
+        TaskSearchRequest request = new TaskSearchRequest();
+        request.setQ(q);
+        request.setCompleted(completed);
+        request.setPage(page);
+        return taskSearchService.searchTasks(request);
+    }
+
+    private static List<String> titles(TaskSearchResponse response) {
+        return response.getEntityList().stream().map(TaskView::getTitle).toList();
+    }
+
+    private static AddTaskDto addTaskDto(String title, String description) {
+        AddTaskDto addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle(title);
+        addTaskDto.setDescription(description);
+        return addTaskDto;
+    }
+}
@@ -1,11 +1,21 @@
 package com.todo.backend.service;
 
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
 import com.todo.backend.dto.CompleteResponse;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.PageResponse;
+import com.todo.backend.dto.TaskPageRequest;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
 import com.todo.backend.exception.TaskNotFoundException;
+import com.todo.backend.jdbc.SqlStatementCounter;
+import com.todo.backend.jdbc.SqlStatementCounts;
 import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.util.TaskIdGenerator;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,8 +25,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
-@SpringBootTest
+// tests also assert the exact statements each service call sends, writes are flushed before counting.
+// one id block lasts the whole class, so no budget depends on when a block is refilled
+@SpringBootTest(properties = "task.id.block-size=1000000")
 @ActiveProfiles("test")
 @Transactional
 public class TaskServiceIntegrationTests {
@@ -27,9 +42,18 @@ public class TaskServiceIntegrationTests {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void cleanDb() {
         taskRepository.deleteAll();
+        taskIdGenerator.generate();
+        taskIdGenerator.nextPrimaryKey();
+        flushAndClear();
     }
 
 
@@ -41,9 +65,15 @@ public class TaskServiceIntegrationTests {
         dto.setDescription("Service Desc");
 
         // act
+        SqlStatementCounter.reset();
         Task created = taskService.createTask(dto);
+        entityManager.flush();
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - ids come from the reserved blocks, so the task and its outbox event are the only statements
+        Assertions.assertEquals(2, counts.getInserts());
+        Assertions.assertEquals(2, counts.getTotal());
 
-        // assert
         Assertions.assertNotNull(created.getId());
         Assertions.assertNotNull(created.getTaskId());
         Assertions.assertEquals("Service Task", created.getTitle());
@@ -65,11 +95,16 @@ public class TaskServiceIntegrationTests {
                     .build();
             taskRepository.save(t);
         }
+        flushAndClear();
 
         // act
-        ListResponse<Task> response = taskService.findRecentTasks();
+        SqlStatementCounter.reset();
+        ListResponse<TaskView> response = taskService.findRecentTasks();
+        SqlStatementCounts counts = SqlStatementCounter.current();
 
         // assert
+        Assertions.assertEquals(1, counts.getSelects());
+        Assertions.assertEquals(1, counts.getTotal());
         Assertions.assertEquals("No of tasks found : 3", response.getMessage());
         Assertions.assertEquals(3, response.getEntityList().size());
     }
@@ -85,16 +120,50 @@ public class TaskServiceIntegrationTests {
                 .createdAt(LocalDateTime.now())
                 .build();
         Task saved = taskRepository.save(t);
+        flushAndClear();
 
         // act
+        SqlStatementCounter.reset();
         CompleteResponse response = taskService.completeTask(saved.getId());
+        SqlStatementCounts counts = SqlStatementCounter.current();
 
-        //assert
+        //assert - a single conditional update and the outbox event, the task is never loaded
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(1, counts.getInserts());
+        Assertions.assertEquals(2, counts.getTotal());
         Assertions.assertEquals("Task has been completed", response.getMessage());
-        Assertions.assertTrue(response.getTask().getCompleted());
+        Assertions.assertTrue(response.isCompletedNow());
 
         Task fromDb = taskRepository.findById(saved.getId()).orElseThrow();
         Assertions.assertTrue(fromDb.getCompleted());
+        Assertions.assertEquals(1L, fromDb.getVersion());
+    }
+
+    @Test
+    void completeTask_AlreadyCompleted_ReportsWithoutUpdating() {
+        // arrange
+        Task t = Task.builder()
+                .taskId("TSK 1")
+                .title("Done")
+                .description("Desc")
+                .completed(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        Task saved = taskRepository.save(t);
+        flushAndClear();
+
+        // act
+        SqlStatementCounter.reset();
+        CompleteResponse response = taskService.completeTask(saved.getId());
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - the update matches no row, one lookup tells completed from missing
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(1, counts.getSelects());
+        Assertions.assertEquals(2, counts.getTotal());
+        Assertions.assertEquals("Task was already completed", response.getMessage());
+        Assertions.assertFalse(response.isCompletedNow());
+        Assertions.assertEquals(0L, taskRepository.findById(saved.getId()).orElseThrow().getVersion());
     }
 
     @Test
@@ -107,4 +176,210 @@ public class TaskServiceIntegrationTests {
 
         Assertions.assertEquals("Task 999 not found", ex.getMessage());
     }
+
+    @Test
+    void completeTaskByTaskId_CreatedHere_ResolvedFromCache() {
+        // arrange
+        AddTaskDto dto = new AddTaskDto();
+        dto.setTitle("By Task Id");
+        dto.setDescription("Desc");
+        Task created = taskService.createTask(dto);
+        flushAndClear();
+
+        // act
+        SqlStatementCounter.reset();
+        CompleteResponse response = taskService.completeTaskByTaskId(created.getTaskId());
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - the same statements as completing by id, the id comes from the cache
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(1, counts.getInserts());
+        Assertions.assertEquals(2, counts.getTotal());
+        Assertions.assertEquals(created.getId(), response.getId());
+        Assertions.assertTrue(response.isCompletedNow());
+    }
+
+    @Test
+    void completeTaskByTaskId_NotCached_LooksUpIdOnce() {
+        // arrange
+        Task saved = taskRepository.save(Task.builder()
+                .taskId("TSK UNCACHED")
+                .title("Uncached")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        flushAndClear();
+
+        // act
+        SqlStatementCounter.reset();
+        CompleteResponse response = taskService.completeTaskByTaskId("TSK UNCACHED");
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - one lookup through the unique index, then the usual update and outbox event
+        Assertions.assertEquals(1, counts.getSelects());
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(1, counts.getInserts());
+        Assertions.assertEquals(3, counts.getTotal());
+        Assertions.assertEquals(saved.getId(), response.getId());
+    }
+
+    @Test
+    void findTaskByTaskId_ReturnsTaskWithOneSelect() {
+        // arrange
+        Task saved = taskRepository.save(Task.builder()
+                .taskId("TSK FIND")
+                .title("Find Me")
+                .description("Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        flushAndClear();
+
+        // act
+        SqlStatementCounter.reset();
+        TaskView task = taskService.findTaskByTaskId("TSK FIND");
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert
+        Assertions.assertEquals(1, counts.getTotal());
+        Assertions.assertEquals(saved.getId(), task.getId());
+        Assertions.assertEquals("Find Me", task.getTitle());
+        Assertions.assertThrows(TaskNotFoundException.class, () -> taskService.findTaskByTaskId("TSK MISSING"));
+    }
+
+    @Test
+    void createTasks_PersistsWholeBatch() {
+        // arrange
+        List<AddTaskDto> dtos = new ArrayList<>();
+        for (int i = 1; i <= 120; i++) {
+            AddTaskDto dto = new AddTaskDto();
+            dto.setTitle("Batch Task " + i);
+            dto.setDescription("Batch Desc " + i);
+            dtos.add(dto);
+        }
+
+        // act
+        SqlStatementCounter.reset();
+        ListResponse<TaskSummary> response = taskService.createTasks(dtos);
+        entityManager.flush();
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - 120 rows in jdbc batches of 50, the outbox events in one batch,
+        // plus an update and a select reserving the keys and again the task ids
+        Assertions.assertEquals(4, counts.getInserts());
+        Assertions.assertEquals(8, counts.getTotal());
+        Assertions.assertEquals("No of tasks created : 120", response.getMessage());
+        Assertions.assertTrue(response.getEntityList().stream().allMatch(t -> t.getId() != null));
+        Assertions.assertEquals(120, taskRepository.count());
+    }
+
+    @Test
+    void completeTasks_ByIds_UpdatesExistingAndReportsMissing() {
+        // arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Task t = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            ids.add(taskRepository.save(t).getId());
+        }
+        ids.add(999_999L);
+        flushAndClear();
+
+        BulkCompleteDto dto = new BulkCompleteDto();
+        dto.setIds(ids);
+
+        // act
+        SqlStatementCounter.reset();
+        BulkCompleteResponse response = taskService.completeTasks(dto);
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - the open ids are locked, one outbox insert and one update per chunk of ids.
+        // a missing id costs a lookup of the existing ones and one in the archive
+        Assertions.assertEquals(3, counts.getSelects());
+        Assertions.assertEquals(1, counts.getInserts());
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(5, counts.getTotal());
+        Assertions.assertEquals(3, response.getUpdatedCount());
+        Assertions.assertEquals(List.of(999_999L), response.getMissingIds());
+        Assertions.assertTrue(taskRepository.findAll().stream().allMatch(Task::getCompleted));
+    }
+
+    @Test
+    void completeTasks_CreatedBefore_CompletesOnlyOlderTasks() {
+        // arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 4; i++) {
+            Task t = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(false)
+                    .createdAt(now.minusDays(i))
+                    .build();
+            taskRepository.save(t);
+        }
+
+        flushAndClear();
+
+        BulkCompleteDto dto = new BulkCompleteDto();
+        dto.setCreatedBefore(now.minusHours(36));
+
+        // act
+        SqlStatementCounter.reset();
+        BulkCompleteResponse response = taskService.completeTasks(dto);
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - tasks created 2, 3 and 4 days ago, their outbox events are copied in one statement
+        Assertions.assertEquals(1, counts.getInserts());
+        Assertions.assertEquals(1, counts.getUpdates());
+        Assertions.assertEquals(2, counts.getTotal());
+        Assertions.assertEquals(3, response.getUpdatedCount());
+        Assertions.assertEquals("No of tasks completed : 3", response.getMessage());
+        Assertions.assertEquals(1, taskRepository.findAll().stream().filter(t -> !t.getCompleted()).count());
+    }
+
+    @Test
+    void findTasks_CreatedRange_ReturnsTasksInsideRange() {
+        // arrange
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 5; i++) {
+            Task t = Task.builder()
+                    .taskId("TSK " + i)
+                    .title("Task " + i)
+                    .description("Desc " + i)
+                    .completed(false)
+                    .createdAt(now.minusDays(i))
+                    .build();
+            taskRepository.save(t);
+        }
+
+        TaskPageRequest pageRequest = new TaskPageRequest();
+        pageRequest.setCreatedFrom(now.minusDays(4));
+        pageRequest.setCreatedTo(now.minusDays(1));
+        flushAndClear();
+
+        // act
+        SqlStatementCounter.reset();
+        PageResponse<TaskSummary> response = taskService.findTasks(pageRequest);
+        SqlStatementCounts counts = SqlStatementCounter.current();
+
+        // assert - created 2, 3 and 4 days ago
+        Assertions.assertEquals(1, counts.getSelects());
+        Assertions.assertEquals(1, counts.getTotal());
+        Assertions.assertEquals(List.of("TSK 4", "TSK 3", "TSK 2"),
+                response.getEntityList().stream().map(TaskSummary::getTaskId).toList());
+        Assertions.assertNull(response.getNextCursor());
+    }
+
+    // pending inserts go out now and later reads hit the database instead of the persistence context
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
 }
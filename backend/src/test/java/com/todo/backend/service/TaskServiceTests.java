@@ -1,27 +1,51 @@
 package com.todo.backend.service;
 
+import com.todo.backend.cache.RecentTasksCache;
+import com.todo.backend.cache.TaskIdCache;
+import com.todo.backend.cache.TaskVersion;
 
 import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.BulkCompleteDto;
+import com.todo.backend.dto.BulkCompleteResponse;
 import com.todo.backend.dto.CompleteResponse;
 import com.todo.backend.dto.ListResponse;
+import com.todo.backend.dto.TaskFileFormat;
+import com.todo.backend.dto.TaskSummary;
+import com.todo.backend.dto.TaskView;
 import com.todo.backend.entity.Task;
+import com.todo.backend.event.TaskEventBroadcaster;
+import com.todo.backend.exception.InvalidTaskBatchException;
 import com.todo.backend.exception.TaskNotFoundException;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskArchiveRepository;
 import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.search.TaskSearchIndex;
 import com.todo.backend.service.impl.TaskServiceImpl;
 import com.todo.backend.util.TaskIdGenerator;
+import com.todo.backend.writebehind.TaskWriteBehind;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 public class TaskServiceTests {
@@ -29,9 +53,42 @@ public class TaskServiceTests {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+
     @Mock
     private TaskIdGenerator taskIdGenerator;
 
+    @Mock
+    private RecentTasksCache recentTasksCache;
+
+    @Mock
+    private TaskIdCache taskIdCache;
+
+    @Mock
+    private TaskVersion taskVersion;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Mock
+    private TaskOutbox taskOutbox;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private TaskWriteBehind taskWriteBehind;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -73,6 +130,7 @@ public class TaskServiceTests {
         Mockito.verify(taskIdGenerator, Mockito.times(1)).generate();  // optional check
         Mockito.verify(taskRepository, Mockito.times(1))
                 .save(Mockito.any(Task.class));
+        Mockito.verify(taskOutbox, Mockito.times(1)).tasksCreated(Mockito.anyList());
     }
 
     //test whether returns a ListResponse as required
@@ -95,13 +153,13 @@ public class TaskServiceTests {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        List<Task> tasks = Arrays.asList(task1, task2);
+        List<TaskView> tasks = Arrays.asList(TaskView.from(task1), TaskView.from(task2));
 
         Mockito.when(taskRepository.findRecentTasks())
                 .thenReturn(tasks);
 
         // act
-        ListResponse<Task> response = taskService.findRecentTasks();
+        ListResponse<TaskView> response = taskService.findRecentTasks();
 
         // assert
         Assertions.assertNotNull(response);
@@ -111,6 +169,28 @@ public class TaskServiceTests {
         Mockito.verify(taskRepository, Mockito.times(1)).findRecentTasks();
     }
 
+    @Test
+    public void TaskService_FindRecentTasks_CachedTasks_SkipsRepository() {
+        // arrange
+        Task task = Task.builder()
+                .id(1L)
+                .title("Task 1")
+                .description("Desc 1")
+                .completed(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        Mockito.when(recentTasksCache.get())
+                .thenReturn(Optional.of(List.of(TaskView.from(task))));
+
+        // act
+        ListResponse<TaskView> response = taskService.findRecentTasks();
+
+        // assert
+        Assertions.assertEquals("No of tasks found : 1", response.getMessage());
+        Mockito.verify(taskRepository, Mockito.never()).findRecentTasks();
+    }
+
     @Test
     public void TaskService_FindRecentTasks_NoTasks_ReturnsMessageOnly() {
         // arrange
@@ -118,7 +198,7 @@ public class TaskServiceTests {
                 .thenReturn(Collections.emptyList());
 
         // act
-        ListResponse<Task> response = taskService.findRecentTasks();
+        ListResponse<TaskView> response = taskService.findRecentTasks();
 
         // assert
         Assertions.assertNotNull(response);
@@ -132,27 +212,8 @@ public class TaskServiceTests {
         // Arrange
         Long id = 1L;
 
-        Task existingTask = Task.builder()
-                .id(id)
-                .title("Incomplete Task")
-                .description("Desc")
-                .completed(false)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        Task updatedTask = Task.builder()
-                .id(id)
-                .title("Incomplete Task")
-                .description("Desc")
-                .completed(true)
-                .createdAt(existingTask.getCreatedAt())
-                .build();
-
-        Mockito.when(taskRepository.findById(id))
-                .thenReturn(Optional.of(existingTask));
-
-        Mockito.when(taskRepository.save(Mockito.any(Task.class)))
-                .thenReturn(updatedTask);
+        Mockito.when(taskRepository.completeTask(id))
+                .thenReturn(1);
 
         // act
         CompleteResponse response = taskService.completeTask(id);
@@ -160,12 +221,30 @@ public class TaskServiceTests {
         // assert
         Assertions.assertNotNull(response);
         Assertions.assertEquals("Task has been completed", response.getMessage());
-        Assertions.assertNotNull(response.getTask());
-        Assertions.assertTrue(response.getTask().getCompleted());
-        Assertions.assertEquals(id, response.getTask().getId());
+        Assertions.assertEquals(id, response.getId());
+        Assertions.assertTrue(response.isCompletedNow());
+
+        Mockito.verify(taskRepository, Mockito.times(1)).completeTask(id);
+        Mockito.verify(taskRepository, Mockito.never()).existsById(id);
+        Mockito.verify(taskRepository, Mockito.never()).findById(id);
+    }
+
+    @Test
+    public void TaskService_CompleteTask_AlreadyCompleted_ReturnsCompleteResponse() {
+        // arrange
+        Long id = 1L;
+
+        Mockito.when(taskRepository.completeTask(id))
+                .thenReturn(0);
+        Mockito.when(taskRepository.existsById(id))
+                .thenReturn(true);
 
-        Mockito.verify(taskRepository, Mockito.times(1)).findById(id);
-        Mockito.verify(taskRepository, Mockito.times(1)).save(Mockito.any(Task.class));
+        // act
+        CompleteResponse response = taskService.completeTask(id);
+
+        // assert
+        Assertions.assertEquals("Task was already completed", response.getMessage());
+        Assertions.assertFalse(response.isCompletedNow());
     }
 
     @Test
@@ -173,8 +252,10 @@ public class TaskServiceTests {
         // arrange
         Long id = 99L;
 
-        Mockito.when(taskRepository.findById(id))
-                .thenReturn(Optional.empty());
+        Mockito.when(taskRepository.completeTask(id))
+                .thenReturn(0);
+        Mockito.when(taskRepository.existsById(id))
+                .thenReturn(false);
 
         //act
         Exception exception = Assertions.assertThrows(
@@ -184,8 +265,150 @@ public class TaskServiceTests {
 
         // assert
         Assertions.assertEquals("Task 99 not found", exception.getMessage());
-        Mockito.verify(taskRepository, Mockito.times(1)).findById(id);
+        Assertions.assertEquals(0, exception.getStackTrace().length);
+        Mockito.verify(taskRepository, Mockito.times(1)).completeTask(id);
+    }
+
+    @Test
+    public void TaskService_CompleteTasks_AlreadyCompletedIds_AreNotReported() {
+        // arrange - task 2 was completed before
+        BulkCompleteDto dto = new BulkCompleteDto();
+        dto.setIds(List.of(1L, 2L));
+
+        Mockito.when(taskRepository.findOpenIdsForUpdate(List.of(1L, 2L)))
+                .thenReturn(List.of(1L));
+        Mockito.when(taskRepository.findExistingIds(List.of(1L, 2L)))
+                .thenReturn(List.of(1L, 2L));
+
+        // act
+        BulkCompleteResponse response = taskService.completeTasks(dto);
+
+        // assert
+        Assertions.assertEquals(1, response.getUpdatedCount());
+        Assertions.assertTrue(response.getMissingIds().isEmpty());
+        Mockito.verify(taskRepository).completeTasks(List.of(1L));
+        Mockito.verify(taskOutbox).tasksCompleting(List.of(1L));
+        Mockito.verify(recentTasksCache).tasksCompleted(List.of(1L));
+        Mockito.verify(taskEventBroadcaster).tasksCompleted(List.of(1L));
+        Mockito.verify(taskSearchIndex).tasksCompleted(List.of(1L));
+    }
+
+    @Test
+    public void TaskService_CompleteTasks_NoOpenIds_NotifiesNobody() {
+        // arrange
+        BulkCompleteDto dto = new BulkCompleteDto();
+        dto.setIds(List.of(2L));
+
+        Mockito.when(taskRepository.findOpenIdsForUpdate(List.of(2L)))
+                .thenReturn(List.of());
+        Mockito.when(taskRepository.findExistingIds(List.of(2L)))
+                .thenReturn(List.of(2L));
+
+        // act
+        BulkCompleteResponse response = taskService.completeTasks(dto);
+
+        // assert
+        Assertions.assertEquals(0, response.getUpdatedCount());
+        Mockito.verify(taskRepository, Mockito.never()).completeTasks(Mockito.anyCollection());
+        Mockito.verifyNoInteractions(taskOutbox, recentTasksCache, taskVersion, taskEventBroadcaster, taskSearchIndex);
+    }
+
+    @Test
+    public void TaskService_CompleteTaskByTaskId_CachedId_SkipsLookup() {
+        // arrange
+        Mockito.when(taskIdCache.get("TSK 7"))
+                .thenReturn(7L);
+        Mockito.when(taskRepository.completeTask(7L))
+                .thenReturn(1);
+
+        // act
+        CompleteResponse response = taskService.completeTaskByTaskId("TSK 7");
+
+        // assert
+        Assertions.assertEquals(7L, response.getId());
+        Assertions.assertTrue(response.isCompletedNow());
+        Mockito.verify(taskRepository, Mockito.never()).findIdByTaskId(Mockito.anyString());
+    }
+
+    @Test
+    public void TaskService_CreateTasks_ValidBatch_SavesAllInOneCall() {
+        // arrange
+        AddTaskDto first = new AddTaskDto();
+        first.setTitle("Task 1");
+        first.setDescription("Desc 1");
+
+        AddTaskDto second = new AddTaskDto();
+        second.setTitle("Task 2");
+        second.setDescription("Desc 2");
+
+        Mockito.when(taskIdGenerator.reservePrimaryKeys(2)).thenReturn(10L);
+        Mockito.when(taskIdGenerator.reserveTaskIds(2)).thenReturn(1L);
+
+        Mockito.when(taskRepository.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // act
+        ListResponse<TaskSummary> response = taskService.createTasks(List.of(first, second));
+
+        // assert
+        Assertions.assertEquals("No of tasks created : 2", response.getMessage());
+        Assertions.assertEquals(2, response.getEntityList().size());
+        Assertions.assertEquals("TSK 2", response.getEntityList().get(1).getTaskId());
+        Assertions.assertEquals(11L, response.getEntityList().get(1).getId());
+        Mockito.verify(taskRepository, Mockito.times(1)).saveAll(Mockito.anyList());
         Mockito.verify(taskRepository, Mockito.never()).save(Mockito.any(Task.class));
+        Mockito.verify(taskIdGenerator, Mockito.never()).nextPrimaryKey();
+        // the keys are reserved before the insert transaction takes its connection
+        InOrder inOrder = Mockito.inOrder(taskIdGenerator, transactionManager);
+        inOrder.verify(taskIdGenerator).reserveTaskIds(2);
+        inOrder.verify(transactionManager).getTransaction(Mockito.any());
     }
 
+    @Test
+    public void TaskService_CreateTasks_InvalidItems_ReportsEveryError() {
+        // arrange
+        AddTaskDto valid = new AddTaskDto();
+        valid.setTitle("Task 1");
+        valid.setDescription("Desc 1");
+
+        AddTaskDto noTitle = new AddTaskDto();
+        noTitle.setDescription("Desc 2");
+
+        AddTaskDto empty = new AddTaskDto();
+
+        // act
+        InvalidTaskBatchException exception = Assertions.assertThrows(
+                InvalidTaskBatchException.class,
+                () -> taskService.createTasks(List.of(valid, noTitle, empty))
+        );
+
+        // assert
+        Assertions.assertEquals(3, exception.getErrors().size());
+        Assertions.assertTrue(exception.getErrors().stream().noneMatch(error -> error.getIndex() == 0));
+        Assertions.assertTrue(exception.getErrors().stream()
+                .anyMatch(error -> error.getIndex() == 1 && error.getField().equals("title")));
+        Mockito.verify(taskRepository, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    public void TaskService_ExportTasks_Csv_QuotesFieldsWithSeparators() throws Exception {
+        // arrange
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        Mockito.when(taskRepository.streamAll()).thenReturn(Stream.of(
+                new TaskView(1L, "TSK 1", "Plain", "Desc 1", createdAt, false),
+                new TaskView(2L, "TSK 2", "Say \"hi\", twice", "Line 1\nLine 2", createdAt, true)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // act
+        long count = taskService.exportTasks(TaskFileFormat.CSV, outputStream);
+
+        // assert
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(
+                "id,taskId,title,description,createdAt,completed\n" +
+                        "1,TSK 1,Plain,Desc 1,2025-01-02T03:04:05,false\n" +
+                        "2,TSK 2,\"Say \"\"hi\"\", twice\",\"Line 1\nLine 2\",2025-01-02T03:04:05,true\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,83 @@
+package com.todo.backend.throttle;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class TaskConcurrencyLimiterTests {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TaskConcurrencyLimiter limiter = new TaskConcurrencyLimiter(new SimpleMeterRegistry(),
+            true, 20, 4, 200, 1.5, Duration.ofMillis(100), 10);
+
+    private long now = System.nanoTime();
+
+    @Test
+    void tryAcquire_AtLimit_Sheds() {
+        // arrange
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+
+        // act + assert
+        Assertions.assertFalse(limiter.tryAcquire());
+        limiter.release(-1);
+        Assertions.assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void sample_LatencyRises_ShrinksLimit() {
+        // arrange
+        busy(15);
+        windows(20, TimeUnit.MILLISECONDS.toNanos(5));
+        int before = limiter.getLimit();
+
+        // act
+        windows(10, TimeUnit.MILLISECONDS.toNanos(50));
+
+        // assert
+        Assertions.assertTrue(limiter.getLimit() < before / 2, limiter.getLimit() + " should be under half of " + before);
+        Assertions.assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void sample_SteadyLatencyUnderLoad_GrowsLimit() {
+        // arrange
+        busy(15);
+
+        // act
+        windows(5, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // assert
+        Assertions.assertTrue(limiter.getLimit() > 20);
+    }
+
+    @Test
+    void sample_SteadyLatencyWhileIdle_KeepsLimit() {
+        // act
+        windows(20, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // assert
+        Assertions.assertEquals(20, limiter.getLimit());
+    }
+
+    // holds permits for the rest of the test, a window counts the most that were in flight
+    private void busy(int permits) {
+        for (int i = 0; i < permits; i++) {
+            limiter.tryAcquire();
+        }
+    }
+
+    private void windows(int count, long latencyNanos) {
+        for (int window = 0; window < count; window++) {
+            now += WINDOW;
+            for (int i = 0; i < 10; i++) {
+                limiter.sample(latencyNanos, now);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.todo.backend.throttle;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TaskRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 10 creates per second with a burst of 5, 100 reads per second with a burst of 10
+    private final TaskRateLimiter limiter = new TaskRateLimiter(true, 10, 5, 10, 5, 100, 10, 3);
+
+    @Test
+    void tryAcquire_OverBurst_RejectsUntilNextToken() {
+        // arrange
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("client", "POST", "/api/tasks", now));
+        }
+
+        // act
+        long wait = limiter.tryAcquire("client", "POST", "/api/tasks", now);
+
+        // assert
+        Assertions.assertEquals(SECOND / 10, wait);
+        Assertions.assertEquals(SECOND / 10 - 1, limiter.tryAcquire("client", "POST", "/api/tasks", now + 1));
+        Assertions.assertEquals(0, limiter.tryAcquire("client", "POST", "/api/tasks", now + SECOND / 10));
+    }
+
+    @Test
+    void tryAcquire_KeepsBucketsPerClientAndEndpoint() {
+        // arrange
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("abusive", "POST", "/api/tasks", now);
+        }
+
+        // act + assert
+        Assertions.assertTrue(limiter.tryAcquire("abusive", "POST", "/api/tasks", now) > 0);
+        Assertions.assertEquals(0, limiter.tryAcquire("abusive", "PUT", "/api/tasks/{id}/complete", now));
+        Assertions.assertEquals(0, limiter.tryAcquire("polite", "POST", "/api/tasks", now));
+    }
+
+    @Test
+    void tryAcquire_ReadsUseTheirOwnLimit() {
+        // arrange
+        long now = 0;
+
+        // act
+        int allowed = 0;
+        while (limiter.tryAcquire("client", "GET", "/api/tasks/recent", now) == 0) {
+            allowed++;
+        }
+
+        // assert
+        Assertions.assertEquals(10, allowed);
+    }
+
+    @Test
+    void tryAcquire_AtMaxBuckets_DropsFullBuckets() {
+        // arrange
+        limiter.tryAcquire("a", "GET", "/api/tasks/recent", 0);
+        limiter.tryAcquire("b", "GET", "/api/tasks/recent", 0);
+        limiter.tryAcquire("c", "GET", "/api/tasks/recent", 0);
+
+        // act
+        limiter.tryAcquire("d", "GET", "/api/tasks/recent", SECOND);
+
+        // assert
+        Assertions.assertEquals(1, limiter.getBucketCount());
+    }
+}
@@ -0,0 +1,212 @@
+package com.todo.backend.throttle;
+
+import com.todo.backend.repository.TaskRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "task.rate-limit.enabled=true",
+        "task.rate-limit.client-header=X-Client-Id",
+        "task.rate-limit.create.rate=1",
+        "task.rate-limit.create.burst=10",
+        "task.rate-limit.read.rate=200",
+        "task.rate-limit.read.burst=200",
+        "task.concurrency-limit.enabled=true"
+})
+public class TaskThrottleIntegrationTests {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final String TASK_JSON = "{\"title\":\"Throttled Task\",\"description\":\"Throttled Desc\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskConcurrencyLimiter concurrencyLimiter;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void createTask_OverRateLimit_Returns429ForThatClientOnly() throws Exception {
+        // arrange
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(post("/api/tasks").header(CLIENT_HEADER, "burst")
+                            .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                    .andExpect(status().isCreated());
+        }
+
+        // act + assert
+        mockMvc.perform(post("/api/tasks").header(CLIENT_HEADER, "burst")
+                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.message").value(containsString("POST /api/tasks")))
+                .andExpect(jsonPath("$.timeStamp").exists());
+
+        mockMvc.perform(get("/api/tasks/recent").header(CLIENT_HEADER, "burst"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/tasks").header(CLIENT_HEADER, "other")
+                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void findRecentTasks_AtConcurrencyLimit_Returns503() throws Exception {
+        // arrange
+        int held = 0;
+        while (concurrencyLimiter.tryAcquire()) {
+            held++;
+        }
+
+        try {
+            // act + assert
+            mockMvc.perform(get("/api/tasks/recent").header(CLIENT_HEADER, "shed"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"))
+                    .andExpect(jsonPath("$.status").value(503))
+                    .andExpect(jsonPath("$.timeStamp").exists());
+        } finally {
+            for (int i = 0; i < held; i++) {
+                concurrencyLimiter.release(-1);
+            }
+        }
+
+        mockMvc.perform(get("/api/tasks/recent").header(CLIENT_HEADER, "shed"))
+                .andExpect(status().isOk());
+    }
+
+    // two clients read recent tasks at a steady 50 per second each, in rounds alone and while a third keeps
+    // sending creates as fast as it gets answers. the rounds alternate so noise on the machine hits both sides.
+    // the abusive client is held to its create limit and the others keep their latency
+    @Test
+    void abusiveClient_IsThrottled_WhileWellBehavedClientsKeepTheirP99() throws Exception {
+        // arrange
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post("/api/tasks").header(CLIENT_HEADER, "seed-" + i)
+                    .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON));
+        }
+        wellBehaved(50, new Latencies());
+
+        // act
+        Latencies alone = new Latencies();
+        Latencies underAbuse = new Latencies();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean abusing = new AtomicBoolean();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        long start = System.nanoTime();
+
+        try (ExecutorService abuser = Executors.newFixedThreadPool(2)) {
+            for (int thread = 0; thread < 2; thread++) {
+                abuser.submit(() -> {
+                    while (running.get()) {
+                        if (!abusing.get()) {
+                            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                            continue;
+                        }
+                        int status = mockMvc.perform(post("/api/tasks").header(CLIENT_HEADER, "abusive")
+                                        .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                                .andReturn().getResponse().getStatus();
+                        (status == 429 ? throttled : created).incrementAndGet();
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+                    }
+                    return null;
+                });
+            }
+            for (int round = 0; round < 3; round++) {
+                wellBehaved(50, alone);
+                abusing.set(true);
+                wellBehaved(50, underAbuse);
+                abusing.set(false);
+            }
+            running.set(false);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // assert
+        System.out.printf("well-behaved p99 %.2f ms alone, %.2f ms under abuse; abusive client %d created, %d throttled%n",
+                alone.p99Millis(), underAbuse.p99Millis(), created.get(), throttled.get());
+        Assertions.assertTrue(created.get() <= 10 + seconds + 1, "abusive client created " + created.get());
+        Assertions.assertTrue(throttled.get() > 5 * created.get(), "abusive client throttled " + throttled.get());
+        Assertions.assertEquals(0, alone.failures.get() + underAbuse.failures.get());
+        Assertions.assertTrue(underAbuse.p99Millis() <= Math.max(3 * alone.p99Millis(), alone.p99Millis() + 50),
+                "p99 " + underAbuse.p99Millis() + " ms under abuse, " + alone.p99Millis() + " ms alone");
+    }
+
+    // requests of two clients, each due at a fixed 20 ms interval and timed from when it was due
+    private void wellBehaved(int requestsPerClient, Latencies latencies) throws Exception {
+        long interval = TimeUnit.MILLISECONDS.toNanos(20);
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < 2; client++) {
+                String clientId = "polite-" + client;
+                futures.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long due = start + i * interval;
+                        LockSupport.parkNanos(due - System.nanoTime());
+                        int status = mockMvc.perform(get("/api/tasks/recent").header(CLIENT_HEADER, clientId))
+                                .andReturn().getResponse().getStatus();
+                        latencies.nanos.add(System.nanoTime() - due);
+                        if (status != 200) {
+                            latencies.failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static class Latencies {
+
+        private final List<Long> nanos = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private double p99Millis() {
+            List<Long> sorted = new ArrayList<>(nanos);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000.0;
+        }
+    }
+}
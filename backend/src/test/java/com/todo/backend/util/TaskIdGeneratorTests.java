@@ -0,0 +1,125 @@
+package com.todo.backend.util;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.entity.Task;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.repository.TaskSequenceRepository;
+import com.todo.backend.service.TaskService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskIdGeneratorTests {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSequenceRepository taskSequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanDb() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void generate_ConcurrentCalls_ReturnsUniqueIds() throws Exception {
+        // act
+        List<String> ids = runInParallel(10_000, () -> taskIdGenerator.generate());
+
+        // assert
+        Assertions.assertEquals(10_000, new HashSet<>(ids).size());
+        Assertions.assertTrue(ids.stream().allMatch(id -> id.startsWith("TSK ")));
+    }
+
+    @Test
+    void reservePrimaryKeys_Range_DoesNotOverlapBlockValues() throws Exception {
+        // act
+        List<Long> keys = runInParallel(2_000, () -> taskIdGenerator.nextPrimaryKey());
+        long firstReserved = taskIdGenerator.reservePrimaryKeys(5_000);
+        long next = taskIdGenerator.nextPrimaryKey();
+
+        // assert
+        Assertions.assertTrue(keys.stream().noneMatch(key -> key >= firstReserved && key < firstReserved + 5_000));
+        Assertions.assertFalse(next >= firstReserved && next < firstReserved + 5_000);
+    }
+
+    @Test
+    void generate_SeveralInstances_DoNotOverlap() throws Exception {
+        // arrange - two generators sharing the database behave like two backend replicas
+        TaskIdGenerator first = new TaskIdGenerator(taskRepository, taskSequenceRepository, transactionManager, 7);
+        TaskIdGenerator second = new TaskIdGenerator(taskRepository, taskSequenceRepository, transactionManager, 13);
+
+        // act
+        List<String> ids = runInParallel(5_000, () -> {
+            String a = first.generate();
+            String b = second.generate();
+            return a + "|" + b;
+        });
+
+        // assert
+        Set<String> unique = new HashSet<>();
+        ids.forEach(pair -> unique.addAll(List.of(pair.split("\\|"))));
+        Assertions.assertEquals(10_000, unique.size());
+    }
+
+    @Test
+    void createTask_ConcurrentRequests_PersistsUniqueTaskIds() throws Exception {
+        // act
+        runInParallel(2_000, () -> {
+            AddTaskDto dto = new AddTaskDto();
+            dto.setTitle("Parallel Task");
+            dto.setDescription("Parallel Desc");
+            return taskService.createTask(dto).getTaskId();
+        });
+
+        // assert
+        List<Task> tasks = taskRepository.findAll();
+        Assertions.assertEquals(2_000, tasks.size());
+        Assertions.assertEquals(2_000, tasks.stream().map(Task::getTaskId).distinct().count());
+    }
+
+    private <T> List<T> runInParallel(int count, Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(call));
+            }
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.todo.backend.writebehind;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class TaskJournalTests {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void open_AfterAppends_ReturnsUnflushedRecordsInOrder() throws IOException {
+        // arrange
+        Path file = directory.resolve("journal.bin");
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            journal.awaitDurable(journal.append(bytes("first")));
+            journal.awaitDurable(journal.append(bytes("second")));
+        }
+
+        // act
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+
+            // assert
+            Assertions.assertEquals(List.of("first", "second"), payloads(journal));
+            Assertions.assertEquals(journal.getWritePosition(), journal.unflushed().getLast().endPosition());
+        }
+    }
+
+    @Test
+    void open_AfterMarkFlushed_SkipsFlushedRecords() throws IOException {
+        // arrange
+        Path file = directory.resolve("journal.bin");
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            int firstEnd = journal.append(bytes("first"));
+            journal.append(bytes("second"));
+            journal.markFlushed(firstEnd);
+        }
+
+        // act + assert
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            Assertions.assertEquals(List.of("second"), payloads(journal));
+        }
+    }
+
+    @Test
+    void resetIfDrained_RecordsOfOlderEpochAreNotReplayed() throws IOException {
+        // arrange
+        Path file = directory.resolve("journal.bin");
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            journal.append(bytes("old record one"));
+            int end = journal.append(bytes("old record two"));
+            Assertions.assertFalse(journal.resetIfDrained());
+            journal.markFlushed(end);
+
+            // act
+            Assertions.assertTrue(journal.resetIfDrained());
+            journal.append(bytes("new"));
+        }
+
+        // assert
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            Assertions.assertEquals(List.of("new"), payloads(journal));
+        }
+    }
+
+    @Test
+    void open_CorruptedRecord_EndsReplayBeforeIt() throws IOException {
+        // arrange
+        Path file = directory.resolve("journal.bin");
+        int firstEnd;
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            firstEnd = journal.append(bytes("intact"));
+            journal.append(bytes("torn"));
+            journal.append(bytes("after"));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // flips the first payload byte of the second record
+            channel.write(ByteBuffer.wrap(bytes("X")), firstEnd + 12);
+        }
+
+        // act + assert
+        try (TaskJournal journal = TaskJournal.open(file, CAPACITY)) {
+            Assertions.assertEquals(List.of("intact"), payloads(journal));
+            Assertions.assertEquals(firstEnd, journal.getWritePosition());
+        }
+    }
+
+    @Test
+    void append_JournalFull_ReturnsMinusOne() throws IOException {
+        // arrange
+        try (TaskJournal journal = TaskJournal.open(directory.resolve("journal.bin"), 128)) {
+            Assertions.assertTrue(journal.append(new byte[40]) > 0);
+
+            // act + assert
+            Assertions.assertEquals(-1, journal.append(new byte[40]));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> payloads(TaskJournal journal) {
+        return journal.unflushed().stream()
+                .map(entry -> new String(entry.payload(), StandardCharsets.UTF_8))
+                .toList();
+    }
+}
@@ -0,0 +1,227 @@
+package com.todo.backend.writebehind;
+
+import com.todo.backend.dto.AddTaskDto;
+import com.todo.backend.dto.CompleteResponse;
+import com.todo.backend.dto.TaskView;
+import com.todo.backend.entity.Task;
+import com.todo.backend.exception.InvalidTaskRequestException;
+import com.todo.backend.outbox.TaskOutbox;
+import com.todo.backend.repository.TaskImportRepository;
+import com.todo.backend.repository.TaskRepository;
+import com.todo.backend.service.TaskService;
+import com.todo.backend.util.TaskIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// the flusher only runs when a test asks for it, so tasks stay buffered until then
+@SpringBootTest(properties = {
+        "task.write-behind.enabled=true",
+        "task.write-behind.flush-interval=1h"})
+@ActiveProfiles("test")
+public class TaskWriteBehindIntegrationTests {
+
+    private static final Path JOURNAL_DIRECTORY = createJournalDirectory();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskWriteBehind taskWriteBehind;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskImportRepository taskImportRepository;
+
+    @Autowired
+    private TaskOutbox taskOutbox;
+
+    @Autowired
+    private TaskIdGenerator taskIdGenerator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("task.write-behind.journal", () -> JOURNAL_DIRECTORY.resolve("task-journal.bin").toString());
+        registry.add("task.write-behind.rejected", () -> JOURNAL_DIRECTORY.resolve("task-journal-rejected.csv").toString());
+    }
+
+    @BeforeEach
+    void cleanDb() {
+        taskWriteBehind.flushPending();
+        taskRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM task_outbox");
+    }
+
+    @Test
+    void createTask_WriteBehind_ListedAsRecentBeforeItIsInserted() {
+        // arrange
+        Task task = taskService.createTask(addTaskDto("Buffered Task"));
+
+        // act
+        List<TaskView> bufferedRecent = taskService.findRecentTasks().getEntityList();
+        boolean insertedBeforeFlush = taskRepository.existsById(task.getId());
+        int flushed = taskWriteBehind.flushPending();
+
+        // assert
+        Assertions.assertFalse(insertedBeforeFlush);
+        Assertions.assertEquals(List.of(task.getId()), bufferedRecent.stream().map(TaskView::getId).toList());
+        Assertions.assertEquals(1, flushed);
+        Assertions.assertTrue(taskRepository.existsById(task.getId()));
+        Assertions.assertEquals(1, outboxRows(task.getId()));
+        Assertions.assertEquals(List.of(task.getId()),
+                taskService.findRecentTasks().getEntityList().stream().map(TaskView::getId).toList());
+    }
+
+    @Test
+    void completeTask_BufferedTask_IsFlushedFirst() {
+        // arrange
+        Task task = taskService.createTask(addTaskDto("Complete Me"));
+
+        // act
+        CompleteResponse response = taskService.completeTask(task.getId());
+
+        // assert
+        Assertions.assertTrue(response.isCompletedNow());
+        Assertions.assertEquals(0, taskWriteBehind.getPendingCount());
+        Assertions.assertTrue(taskRepository.findById(task.getId()).orElseThrow().getCompleted());
+        Assertions.assertTrue(taskService.findRecentTasks().getEntityList().isEmpty());
+    }
+
+    @Test
+    void flushPending_ReplayedJournal_SkipsTasksAlreadyInserted() throws Exception {
+        // arrange
+        Path file = JOURNAL_DIRECTORY.resolve("replay.bin");
+        Task inserted = task("Inserted Before Crash");
+        Task buffered = task("Lost In Crash");
+        taskImportRepository.insertAll(List.of(inserted));
+
+        try (TaskJournal journal = TaskJournal.open(file, 1024 * 1024)) {
+            journal.awaitDurable(journal.append(TaskWriteBehind.encode(inserted)));
+            journal.awaitDurable(journal.append(TaskWriteBehind.encode(buffered)));
+        }
+
+        // act
+        TaskWriteBehind replayed = new TaskWriteBehind(taskImportRepository, taskRepository, taskOutbox,
+                transactionManager, new SimpleMeterRegistry(), false, file, DataSize.ofMegabytes(1), 500, Duration.ofHours(1),
+                JOURNAL_DIRECTORY.resolve("replay-rejected.csv"));
+        int pendingAfterOpen = replayed.getPendingCount();
+        replayed.flushPending();
+        replayed.shutdown();
+
+        // assert
+        Assertions.assertEquals(2, pendingAfterOpen);
+        Assertions.assertEquals(2, taskRepository.count());
+        Assertions.assertEquals(buffered.getCreatedAt(), taskRepository.findById(buffered.getId()).orElseThrow().getCreatedAt());
+        Assertions.assertEquals(0, outboxRows(inserted.getId()));
+        Assertions.assertEquals(1, outboxRows(buffered.getId()));
+        try (TaskJournal journal = TaskJournal.open(file, 1024 * 1024)) {
+            Assertions.assertTrue(journal.unflushed().isEmpty());
+        }
+    }
+
+    @Test
+    void createTask_TitleLongerThanColumn_IsRefusedBeforeTheJournal() {
+        // arrange
+        AddTaskDto addTaskDto = addTaskDto("x".repeat(Task.TEXT_LENGTH + 1));
+
+        // act
+        Assertions.assertThrows(InvalidTaskRequestException.class, () -> taskService.createTask(addTaskDto));
+
+        // assert
+        Assertions.assertEquals(0, taskWriteBehind.getPendingCount());
+    }
+
+    @Test
+    void flushPending_TaskRefusedByDatabase_IsRejectedAndDoesNotBlockOthers() throws Exception {
+        // arrange - journaled by an older version that did not check the length
+        Path file = JOURNAL_DIRECTORY.resolve("refused.bin");
+        Path rejectedFile = JOURNAL_DIRECTORY.resolve("refused-rejected.csv");
+        Task before = task("Before");
+        Task refused = task("x".repeat(Task.TEXT_LENGTH + 1));
+        Task after = task("After");
+
+        try (TaskJournal journal = TaskJournal.open(file, 1024 * 1024)) {
+            for (Task task : List.of(before, refused, after)) {
+                journal.awaitDurable(journal.append(TaskWriteBehind.encode(task)));
+            }
+        }
+
+        // act
+        TaskWriteBehind replayed = new TaskWriteBehind(taskImportRepository, taskRepository, taskOutbox,
+                transactionManager, new SimpleMeterRegistry(), false, file, DataSize.ofMegabytes(1), 500, Duration.ofHours(1),
+                rejectedFile);
+        int flushed = replayed.flushPending();
+        replayed.shutdown();
+
+        // assert - the others are inserted, the refused task is kept in the rejected file and the journal is drained
+        Assertions.assertEquals(3, flushed);
+        Assertions.assertTrue(taskRepository.existsById(before.getId()));
+        Assertions.assertTrue(taskRepository.existsById(after.getId()));
+        Assertions.assertFalse(taskRepository.existsById(refused.getId()));
+        Assertions.assertEquals(0, outboxRows(refused.getId()));
+
+        List<String> rejected = Files.readAllLines(rejectedFile);
+        Assertions.assertEquals(2, rejected.size());
+        Assertions.assertTrue(rejected.get(1).startsWith(refused.getId() + "," + refused.getTaskId() + ","));
+        try (TaskJournal journal = TaskJournal.open(file, 1024 * 1024)) {
+            Assertions.assertTrue(journal.unflushed().isEmpty());
+        }
+    }
+
+    private int outboxRows(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_outbox WHERE aggregate_id = ?", Integer.class, taskId);
+    }
+
+    private Task task(String title) {
+        return Task.builder()
+                .id(taskIdGenerator.nextPrimaryKey())
+                .taskId(taskIdGenerator.generate())
+                .title(title)
+                .description(title + " Desc")
+                .completed(false)
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+
+    private static AddTaskDto addTaskDto(String title) {
+        AddTaskDto addTaskDto = new AddTaskDto();
+        addTaskDto.setTitle(title);
+        addTaskDto.setDescription(title + " Desc");
+        return addTaskDto;
+    }
+
+    private static Path createJournalDirectory() {
+        try {
+            Path directory = Files.createTempDirectory("task-journal");
+            directory.toFile().deleteOnExit();
+            return directory;
+        } catch (IOException exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+}
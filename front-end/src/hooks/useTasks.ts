@@ -5,6 +5,7 @@ import {
     fetchRecentTasks,
     createTask,
     completeTask as completeTaskRequest,
+    subscribeToTaskChanges,
 } from "../services/taskServices";
 
 export const useTasks = () => {
@@ -29,6 +30,16 @@ export const useTasks = () => {
         loadRecentTasks();
     }, [loadRecentTasks]);
 
+    // changes made in other tabs or by other users are pushed by the backend instead of polled,
+    // the list is refreshed quietly without the loading state
+    useEffect(() => {
+        return subscribeToTaskChanges(() => {
+            fetchRecentTasks()
+                .then(setRecentTasks)
+                .catch((err) => console.log(err));
+        });
+    }, []);
+
     const addTask = async (payload: AddTaskDto) => {
         try {
             await createTask(payload);
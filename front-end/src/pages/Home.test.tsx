@@ -11,6 +11,7 @@ vi.mock("../services/taskServices", () => ({
     fetchRecentTasks: vi.fn(),
     createTask: vi.fn(),
     completeTask: vi.fn(),
+    subscribeToTaskChanges: vi.fn(() => () => {}),
 }));
 
 describe("Home", () => {
@@ -25,3 +25,15 @@ export const createTask = async (payload: AddTaskDto): Promise<Task> => {
 export const completeTask = async (id: number): Promise<void> => {
     await axios.put(`${API_BASE}/tasks/${id}/complete`);
 };
+
+// calls onChange whenever tasks are created or completed anywhere, the browser reconnects
+// on its own and resumes from the last event it saw. returns a function that closes the stream
+export const subscribeToTaskChanges = (onChange: () => void): (() => void) => {
+    if (typeof EventSource === "undefined") {
+        return () => {};
+    }
+
+    const source = new EventSource(`${API_BASE}/tasks/stream`);
+    ["created", "completed", "reload"].forEach((type) => source.addEventListener(type, onChange));
+    return () => source.close();
+};